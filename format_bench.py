@@ -0,0 +1,104 @@
+#!/usr/bin/env python3
+"""
+Wire‑format benchmark for the *Items API* (`GET /items`).
+
+Requests the same 1 000‑item batch as JSON and as CBOR (``Accept: application/cbor``)
+and reports, per 1 000 items:
+
+* bytes on the wire;
+* client‑side decode time, including turning both timestamps of every item into
+  epoch microseconds (ISO‑8601 strings for JSON, plain integers for CBOR).
+
+Usage examples
+--------------
+# Local items API with the generated data set (MLA0..MLA999)
+python format_bench.py --url http://localhost:8080/items --runs 50
+
+# Different ID range
+python format_bench.py --first-id 5000 --num-ids 1000
+"""
+
+import argparse
+import json
+import statistics
+import time
+from datetime import datetime
+from typing import Callable, List, Tuple
+
+import cbor2
+import httpx
+
+CBOR = "application/cbor"
+JSON = "application/json"
+
+
+def iso_to_micros(ts: str) -> int:
+    dt = datetime.fromisoformat(ts.replace("Z", "+00:00"))
+    return int(dt.timestamp()) * 1_000_000 + dt.microsecond
+
+
+def decode_json(body: bytes) -> int:
+    items = json.loads(body)
+    for it in items:
+        iso_to_micros(it["date_created"])
+        iso_to_micros(it["last_updated"])
+    return len(items)
+
+
+def decode_cbor(body: bytes) -> int:
+    items = cbor2.loads(body)
+    for it in items:
+        int(it["date_created"])
+        int(it["last_updated"])
+    return len(items)
+
+
+def fetch(client: httpx.Client, url: str, ids: List[str], accept: str) -> Tuple[bytes, str]:
+    response = client.get(url, params={"ids": ",".join(ids)}, headers={"Accept": accept})
+    response.raise_for_status()
+    return response.content, response.headers.get("content-type", "")
+
+
+def bench(body: bytes, decoder: Callable[[bytes], int], runs: int) -> Tuple[int, float]:
+    times = []
+    count = 0
+    for _ in range(runs):
+        start = time.perf_counter()
+        count = decoder(body)
+        times.append(time.perf_counter() - start)
+    return count, statistics.median(times)
+
+
+def main(args):
+    ids = [f"MLA{i}" for i in range(args.first_id, args.first_id + args.num_ids)]
+
+    with httpx.Client(timeout=args.timeout) as client:
+        json_body, json_type = fetch(client, args.url, ids, JSON)
+        cbor_body, cbor_type = fetch(client, args.url, ids, f"{CBOR}, {JSON};q=0.9")
+
+    if not cbor_type.startswith(CBOR):
+        raise SystemExit(f"Server did not negotiate CBOR (Content-Type: {cbor_type})")
+
+    json_items, json_time = bench(json_body, decode_json, args.runs)
+    cbor_items, cbor_time = bench(cbor_body, decode_cbor, args.runs)
+
+    per_k = lambda value, items: value * 1000 / max(items, 1)
+    print("\n==== Items wire format (per 1 000 items) ====")
+    print(f"{'format':<6} {'items':>6} {'bytes':>10} {'decode ms':>10}")
+    print(f"{'json':<6} {json_items:>6} {per_k(len(json_body), json_items):>10.0f} "
+          f"{per_k(json_time * 1000, json_items):>10.3f}")
+    print(f"{'cbor':<6} {cbor_items:>6} {per_k(len(cbor_body), cbor_items):>10.0f} "
+          f"{per_k(cbor_time * 1000, cbor_items):>10.3f}")
+    print(f"CBOR/JSON bytes: {len(cbor_body) / len(json_body):.2f}  "
+          f"decode: {cbor_time / json_time:.2f}")
+    print("=============================================\n")
+
+
+if __name__ == "__main__":
+    parser = argparse.ArgumentParser(description="JSON vs CBOR benchmark for the Items API")
+    parser.add_argument("--url", default="http://localhost:8080/items", help="Items endpoint URL")
+    parser.add_argument("--first-id", type=int, default=0, help="First synthetic MLA ID")
+    parser.add_argument("--num-ids", type=int, default=1000, help="Number of IDs per batch")
+    parser.add_argument("--runs", type=int, default=20, help="Decode repetitions (median is reported)")
+    parser.add_argument("--timeout", type=float, default=30.0, help="Request timeout in seconds")
+    main(parser.parse_args())
@@ -0,0 +1,92 @@
+package controller
+
+import (
+	"encoding/binary"
+	"math"
+	"strings"
+
+	res "items/resources/items"
+)
+
+// mimeCBOR es el media type negociado con clientes que prefieren el formato binario.
+const mimeCBOR = "application/cbor"
+
+// acceptsCBOR indica si el header Accept del cliente incluye CBOR.
+func acceptsCBOR(accept string) bool {
+	return strings.Contains(accept, mimeCBOR)
+}
+
+// cborWriter es un encoder CBOR (RFC 8949) mínimo: sólo los tipos que usa esta API.
+type cborWriter struct {
+	buf []byte
+}
+
+func (w *cborWriter) head(major byte, n uint64) {
+	switch {
+	case n < 24:
+		w.buf = append(w.buf, major<<5|byte(n))
+	case n <= math.MaxUint8:
+		w.buf = append(w.buf, major<<5|24, byte(n))
+	case n <= math.MaxUint16:
+		w.buf = append(w.buf, major<<5|25)
+		w.buf = binary.BigEndian.AppendUint16(w.buf, uint16(n))
+	case n <= math.MaxUint32:
+		w.buf = append(w.buf, major<<5|26)
+		w.buf = binary.BigEndian.AppendUint32(w.buf, uint32(n))
+	default:
+		w.buf = append(w.buf, major<<5|27)
+		w.buf = binary.BigEndian.AppendUint64(w.buf, n)
+	}
+}
+
+func (w *cborWriter) text(s string) {
+	w.head(3, uint64(len(s)))
+	w.buf = append(w.buf, s...)
+}
+
+func (w *cborWriter) integer(v int64) {
+	if v >= 0 {
+		w.head(0, uint64(v))
+	} else {
+		w.head(1, uint64(-1-v))
+	}
+}
+
+func (w *cborWriter) float(f float64) {
+	w.buf = append(w.buf, 0xfb)
+	w.buf = binary.BigEndian.AppendUint64(w.buf, math.Float64bits(f))
+}
+
+// encodeItemsCBOR serializa los ítems con las mismas claves que el JSON, salvo
+// que date_created/last_updated viajan como enteros en epoch‑microsegundos.
+// fields restringe las claves escritas (nil = todas).
+func encodeItemsCBOR(items []res.Item, fields []string) []byte {
+	if fields == nil {
+		fields = itemAttributes
+	}
+	w := &cborWriter{buf: make([]byte, 0, len(items)*16*len(fields))}
+	w.head(4, uint64(len(items)))
+	for _, itm := range items {
+		w.head(5, uint64(len(fields)))
+		for _, f := range fields {
+			w.text(f)
+			switch f {
+			case "seller_id":
+				w.text(itm.SellerID)
+			case "title":
+				w.text(itm.Title)
+			case "category_id":
+				w.text(itm.CategoryID)
+			case "price":
+				w.float(itm.Price)
+			case "date_created":
+				w.integer(itm.DateCreatedMicros)
+			case "last_updated":
+				w.integer(itm.LastUpdatedMicros)
+			default:
+				w.text(itm.ID)
+			}
+		}
+	}
+	return w.buf
+}
@@ -0,0 +1,39 @@
+package controller
+
+import (
+	"bytes"
+	"compress/gzip"
+	"net/http"
+	"strings"
+
+	"github.com/labstack/echo/v4"
+)
+
+// gzipMinLength es el tamaño mínimo de respuesta a partir del cual compensa comprimir.
+const gzipMinLength = 4096
+
+// respond escribe body con el content type indicado, comprimiéndolo con gzip
+// cuando el cliente lo acepta y el payload es lo bastante grande.
+func respond(ctx echo.Context, contentType string, body []byte) error {
+	acceptEncoding := ctx.Request().Header.Get(echo.HeaderAcceptEncoding)
+	if len(body) < gzipMinLength || !strings.Contains(acceptEncoding, "gzip") {
+		return ctx.Blob(http.StatusOK, contentType, body)
+	}
+
+	var buf bytes.Buffer
+	zw, err := gzip.NewWriterLevel(&buf, gzip.BestSpeed)
+	if err != nil {
+		return err
+	}
+	if _, err := zw.Write(body); err != nil {
+		return err
+	}
+	if err := zw.Close(); err != nil {
+		return err
+	}
+
+	header := ctx.Response().Header()
+	header.Set(echo.HeaderContentEncoding, "gzip")
+	header.Add(echo.HeaderVary, echo.HeaderAcceptEncoding)
+	return ctx.Blob(http.StatusOK, contentType, buf.Bytes())
+}
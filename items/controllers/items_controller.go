@@ -1,6 +1,7 @@
 package controller
 
 import (
+	"encoding/json"
 	"items/ports"
 	res "items/resources/items" // alias sólo para abreviar
 	"net/http"
@@ -48,7 +49,7 @@ func writeError(ctx echo.Context, err error) error {
 	})
 }
 
-// GetItemsHandler maneja GET /items?ids=MLA1,MLA2
+// GetItemsHandler maneja GET /items?ids=MLA1,MLA2[&attributes=id,category_id]
 func (c *ItemController) GetItemsHandler(ctx echo.Context) error {
 	idsParam := ctx.QueryParam("ids")
 	if idsParam == "" {
@@ -64,7 +65,19 @@ func (c *ItemController) GetItemsHandler(ctx echo.Context) error {
 		return writeError(ctx, err)
 	}
 
-	return ctx.JSON(http.StatusOK, result)
+	// Proyección opcional: ?attributes=id,category_id,... limita los campos devueltos.
+	fields := parseAttributes(ctx.QueryParam("attributes"))
+
+	// Negociación de formato: CBOR si el cliente lo pide, JSON en otro caso.
+	if acceptsCBOR(ctx.Request().Header.Get(echo.HeaderAccept)) {
+		return respond(ctx, mimeCBOR, encodeItemsCBOR(result, fields))
+	}
+
+	body, err := encodeItemsJSON(result, fields)
+	if err != nil {
+		return writeError(ctx, err)
+	}
+	return respond(ctx, echo.MIMEApplicationJSON, body)
 }
 
 // GetCategoriesHandler maneja GET /categories?ids=MLA100,MLA200
@@ -83,5 +96,20 @@ func (c *ItemController) GetCategoriesHandler(ctx echo.Context) error {
 		return writeError(ctx, err)
 	}
 
-	return ctx.JSON(http.StatusOK, result)
+	body, err := json.Marshal(result)
+	if err != nil {
+		return writeError(ctx, err)
+	}
+	return respond(ctx, echo.MIMEApplicationJSON, body)
+}
+
+// GetCategoryRootsHandler maneja GET /categories/roots: el índice completo
+// category_id → root_category_id, para que los clientes resuelvan la categoría
+// raíz localmente (el árbol cambia muy poco).
+func (c *ItemController) GetCategoryRootsHandler(ctx echo.Context) error {
+	body, err := json.Marshal(c.resource.CategoryRoots())
+	if err != nil {
+		return writeError(ctx, err)
+	}
+	return respond(ctx, echo.MIMEApplicationJSON, body)
 }
@@ -0,0 +1,69 @@
+package controller
+
+import (
+	"encoding/json"
+	"strings"
+
+	res "items/resources/items"
+)
+
+// itemAttributes enumera, en orden de serialización, los campos que se pueden
+// pedir con ?attributes=.
+var itemAttributes = []string{"seller_id", "title", "category_id", "price", "date_created", "last_updated", "id"}
+
+// parseAttributes devuelve los atributos pedidos en orden canónico. nil significa
+// ítem completo: parámetro vacío, sin ningún campo conocido o con todos ellos.
+func parseAttributes(param string) []string {
+	if param == "" {
+		return nil
+	}
+	requested := make(map[string]bool)
+	for _, a := range strings.Split(param, ",") {
+		requested[strings.TrimSpace(a)] = true
+	}
+	fields := make([]string, 0, len(itemAttributes))
+	for _, a := range itemAttributes {
+		if requested[a] {
+			fields = append(fields, a)
+		}
+	}
+	if len(fields) == 0 || len(fields) == len(itemAttributes) {
+		return nil
+	}
+	return fields
+}
+
+// encodeItemsJSON serializa los ítems completos o, si hay proyección, sólo los campos pedidos.
+func encodeItemsJSON(items []res.Item, fields []string) ([]byte, error) {
+	if fields == nil {
+		return json.Marshal(items)
+	}
+	out := make([]map[string]any, len(items))
+	for i, itm := range items {
+		m := make(map[string]any, len(fields))
+		for _, f := range fields {
+			m[f] = jsonAttribute(itm, f)
+		}
+		out[i] = m
+	}
+	return json.Marshal(out)
+}
+
+func jsonAttribute(itm res.Item, name string) any {
+	switch name {
+	case "seller_id":
+		return itm.SellerID
+	case "title":
+		return itm.Title
+	case "category_id":
+		return itm.CategoryID
+	case "price":
+		return itm.Price
+	case "date_created":
+		return itm.DateCreated
+	case "last_updated":
+		return itm.LastUpdated
+	default:
+		return itm.ID
+	}
+}
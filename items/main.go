@@ -29,6 +29,7 @@ func main() {
 
 	// Register routes
 	e.GET("/categories", itemController.GetCategoriesHandler)
+	e.GET("/categories/roots", itemController.GetCategoryRootsHandler)
 
 	// Start server
 	port := getPort()
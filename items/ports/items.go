@@ -8,4 +8,5 @@ type ItemsResourcePort interface {
 	GetItemsByIDs(ids []string) ([]items.Item, error)
 	GetCategoriesByIDs(ids []string) ([]items.Category, error)
 	GroupItemIDsByRootCategory(ids []string) ([]items.CategoryGroup, error)
+	CategoryRoots() map[string]string
 }
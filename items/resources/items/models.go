@@ -8,6 +8,11 @@ type Item struct {
 	DateCreated string  `json:"date_created"`
 	LastUpdated string  `json:"last_updated"`
 	ID          string  `json:"id"`
+
+	// Epoch microseconds of DateCreated/LastUpdated, precomputed at load time
+	// for binary (CBOR) responses.
+	DateCreatedMicros int64 `json:"-"`
+	LastUpdatedMicros int64 `json:"-"`
 }
 
 type Category struct {
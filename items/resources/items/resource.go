@@ -5,14 +5,16 @@ import (
 	"fmt"
 	"io"
 	"os"
+	"time"
 )
 
 // Resource provides in‑memory access and indexes for items and categories.
-// Besides the raw maps loaded from JSON, it maintains an index for fast
-// resolution item_id → root_category_id.
+// Besides the raw maps loaded from JSON, it maintains indexes for fast
+// resolution item_id → root_category_id and category_id → root_category_id.
 type Resource struct {
 	items              map[string]Item
 	categories         map[string]Category
+	categoryToRoot     map[string]string // categoryID → rootCategoryID
 	itemToRootCategory map[string]string // itemID → rootCategoryID
 }
 
@@ -21,11 +23,13 @@ type Resource struct {
 func NewResource(itemJSONPath, categoryJSONPath string) *Resource {
 	items := loadItems(itemJSONPath)
 	categories := loadCategories(categoryJSONPath)
+	categoryToRoot := buildCategoryToRootIndex(categories)
 
 	return &Resource{
 		items:              items,
 		categories:         categories,
-		itemToRootCategory: buildItemToRootCategoryIndex(items, categories),
+		categoryToRoot:     categoryToRoot,
+		itemToRootCategory: buildItemToRootCategoryIndex(items, categoryToRoot),
 	}
 }
 
@@ -47,15 +51,27 @@ func loadItems(path string) map[string]Item {
 		panic(fmt.Sprintf("failed to unmarshal items JSON: %v", err))
 	}
 
-	// Copy the map key into the struct so downstream code has the ID field.
+	// Copy the map key into the struct so downstream code has the ID field,
+	// and precompute epoch‑micros timestamps for binary responses.
 	for id, itm := range data {
 		itm.ID = id
+		itm.DateCreatedMicros = parseMicros(itm.DateCreated)
+		itm.LastUpdatedMicros = parseMicros(itm.LastUpdated)
 		data[id] = itm
 	}
 
 	return data
 }
 
+// parseMicros converts an RFC 3339 timestamp into epoch microseconds.
+func parseMicros(ts string) int64 {
+	t, err := time.Parse(time.RFC3339Nano, ts)
+	if err != nil {
+		panic(fmt.Sprintf("invalid timestamp %q: %v", ts, err))
+	}
+	return t.UnixMicro()
+}
+
 // loadCategories reads a categories JSON file and unmarshals it into a map.
 func loadCategories(path string) map[string]Category {
 	file, err := os.Open(path)
@@ -82,22 +98,33 @@ func loadCategories(path string) map[string]Category {
 	return data
 }
 
+// buildCategoryToRootIndex precomputes categoryID → rootCategoryID (first
+// element of path_from_root, or the category itself when it is a root).
+func buildCategoryToRootIndex(categories map[string]Category) map[string]string {
+	idx := make(map[string]string, len(categories))
+
+	for id, cat := range categories {
+		rootID := cat.ID
+		if len(cat.PathFromRoot) > 0 {
+			rootID = cat.PathFromRoot[0].ID
+		}
+		idx[id] = rootID
+	}
+
+	return idx
+}
+
 // buildItemToRootCategoryIndex precomputes itemID → rootCategoryID so future
 // look‑ups are O(1).
-func buildItemToRootCategoryIndex(items map[string]Item, categories map[string]Category) map[string]string {
+func buildItemToRootCategoryIndex(items map[string]Item, categoryToRoot map[string]string) map[string]string {
 	idx := make(map[string]string, len(items))
 
 	for id, itm := range items {
-		cat, ok := categories[itm.CategoryID]
+		rootID, ok := categoryToRoot[itm.CategoryID]
 		if !ok {
 			// The item references an unknown category; skip (or handle as needed)
 			continue
 		}
-
-		rootID := cat.ID
-		if len(cat.PathFromRoot) > 0 {
-			rootID = cat.PathFromRoot[0].ID
-		}
 		idx[id] = rootID
 	}
 
@@ -134,6 +161,12 @@ func (r *Resource) GetCategoriesByIDs(ids []string) ([]Category, error) {
 	return result, nil
 }
 
+// CategoryRoots returns the whole categoryID → rootCategoryID index so clients
+// can resolve root categories locally. The map must not be modified.
+func (r *Resource) CategoryRoots() map[string]string {
+	return r.categoryToRoot
+}
+
 // GroupItemIDsByRootCategory groups a slice of item IDs by the root category
 // (first element of path_from_root) for fast responses like:
 //
@@ -3,11 +3,13 @@ package com.github.jaguzmanb1.melidiscount;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main class for the MeliDiscount project.
  */
 @SpringBootApplication(exclude = {DataSourceAutoConfiguration.class })
+@ConfigurationPropertiesScan
 public class Main {
     public static void main(String[] args) {
         SpringApplication.run(Main.class, args);
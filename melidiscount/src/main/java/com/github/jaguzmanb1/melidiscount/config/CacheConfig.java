@@ -10,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
 
 import java.lang.reflect.Method;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -30,9 +31,14 @@ public class CacheConfig {
         CaffeineCacheManager mgr = new CaffeineCacheManager(
                 "discounts",            // ya existente
                 "discountsByCategory",  // nuevo  (findMaxNonOverlappingItemsByCategory)
+                "discountsByTracks",    // nuevo  (findMaxItemsOnTracksAsync: valores TrackScheduleDTO)
                 "rootCategoryGroups"    // nuevo  (groupItemsByRootCategory)
         );
 
+        // ➊  Modo async: permite cachear métodos que devuelven CompletableFuture
+        //     (las operaciones síncronas siguen funcionando sobre la vista synchronous()).
+        mgr.setAsyncCacheMode(true);
+
         // ➋  Configuración base: tamaño máx. y TTL
         mgr.setCaffeine(
                 Caffeine.newBuilder()
@@ -47,28 +53,50 @@ public class CacheConfig {
      *  1. Accepts the first parameter (List&lt;String&gt; itemIds).
      *  2. Deduplicates, ordena y concatena (para que el orden en la URL no cause "cache miss").
      *  3. Devuelve una String estable: "MLA1,MLA2,MLA3".
+     *  4. Agrega el resto de los parámetros no nulos (objective, ventana…) como sufijos: "MLA1,MLA2|PRICE".
      */
     @Bean("sortedIdsKeyGenerator")
     public KeyGenerator sortedIdsKeyGenerator() {
         return new KeyGenerator() {
             @Override
-            @SuppressWarnings("unchecked")
             public Object generate(Object target, Method method, Object... params) {
                 if (params.length == 0 || params[0] == null) {
                     return "[]";
                 }
 
                 if (params[0] instanceof List<?> raw) {
-                    List<String> ids = (List<String>) raw;
-                    return ids.stream()
-                              .map(Objects::toString)
-                              .distinct()
-                              .sorted()
-                              .collect(Collectors.joining(","));
+                    return requestKey(raw, Arrays.copyOfRange(params, 1, params.length));
                 }
                 // Fallback: just rely on the first param's toString()
                 return params[0].toString();
             }
         };
     }
+
+    /**
+     * Canonical form of an ID list as used by {@code sortedIdsKeyGenerator}:
+     * deduplicated, sorted and comma‑joined. Also used to coalesce in‑flight requests.
+     */
+    public static String sortedIdsKey(List<?> ids) {
+        return ids.stream()
+                  .map(Objects::toString)
+                  .distinct()
+                  .sorted()
+                  .collect(Collectors.joining(","));
+    }
+
+    /**
+     * {@link #sortedIdsKey(List)} followed by {@code |qualifier} for each non‑null extra request parameter,
+     * so requests that differ only in, e.g., the objective never share an entry, while an absent optional
+     * parameter keeps the key it had before the parameter existed.
+     */
+    public static String requestKey(List<?> ids, Object... qualifiers) {
+        StringBuilder key = new StringBuilder(sortedIdsKey(ids));
+        for (Object q : qualifiers) {
+            if (q != null) {
+                key.append('|').append(q);
+            }
+        }
+        return key.toString();
+    }
 }
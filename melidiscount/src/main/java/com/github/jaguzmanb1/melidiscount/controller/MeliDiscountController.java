@@ -2,16 +2,42 @@ package com.github.jaguzmanb1.melidiscount.controller;
 
 import com.github.jaguzmanb1.melidiscount.dto.CategoryGroupDTO;
 import com.github.jaguzmanb1.melidiscount.service.DiscountService;
+import com.github.jaguzmanb1.melidiscount.service.DiscountSessionService;
+import com.github.jaguzmanb1.melidiscount.service.DiscountSessionService.SessionView;
+import com.github.jaguzmanb1.melidiscount.service.Objective;
+import com.github.jaguzmanb1.melidiscount.service.TimeWindow;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Public REST façade for the «Meli Discount» use case.
@@ -23,50 +49,237 @@ import java.util.Objects;
  *
  *   GET /meli_discount/categories?item_ids=MLA1,MLA2,MLA3
  *       → maximum non‑overlapping subset calculated <em>per root category</em>
+ *
+ *   POST /meli_discount/batch   { "sets": { "draftA": ["MLA1","MLA2"], "draftB": [...] } }
+ *       → { "results": { "draftA": [...], "draftB": [...] } }, one upstream fetch for all sets
+ *
+ *   POST /meli_discount/offline   (text/plain, one item ID per line)
+ *       → text/plain, selected IDs one per line, streamed; out of core, for offline jobs over millions of IDs
+ *
+ *   POST   /meli_discount/sessions        { "item_ids": [...] }            → opens a session
+ *   PATCH  /meli_discount/sessions/{id}   { "add": [...], "remove": [...] } → incremental update
+ *   GET    /meli_discount/sessions/{id}                                     → current selection
+ *   DELETE /meli_discount/sessions/{id}
+ *       (session responses: { "session_id": "...", "size": 42, "item_ids": [...] })
  * </pre>
  *
+ * <p>{@code GET /meli_discount} also accepts {@code slots=k}: the largest set that fits on {@code k}
+ * parallel tracks, with the IDs of each track under {@code "tracks"} (count objective only).</p>
+ *
+ * <p>The stateless endpoints accept {@code objective=count} (default, most items) or {@code objective=price}
+ * (highest total price). Both GET endpoints also accept an ISO‑8601 {@code from}/{@code to} planning
+ * window: items are clipped to it and those outside it are ignored.</p>
+ *
  * <p>Business logic is delegated to {@link DiscountService}. Any infrastructure‑level
  * or mapping exceptions are handled by global {@code @ControllerAdvice} components.</p>
+ *
+ * <p>Handlers return {@link CompletableFuture}s (Servlet async), so the request thread is released
+ * while the Items API is being called; {@code /offline} returns a {@link StreamingResponseBody} instead,
+ * which runs the whole job on the MVC async executor.</p>
  */
 @RestController
 @RequestMapping("/meli_discount")
 @Validated
 public class MeliDiscountController {
 
-    private final DiscountService discountService;
+    private final DiscountService        discountService;
+    private final DiscountSessionService sessionService;
 
-    public MeliDiscountController(@NonNull DiscountService discountService) {
+    public MeliDiscountController(@NonNull DiscountService discountService,
+                                  @NonNull DiscountSessionService sessionService) {
         this.discountService = Objects.requireNonNull(discountService, "discountService must not be null");
+        this.sessionService  = Objects.requireNonNull(sessionService, "sessionService must not be null");
     }
 
     /**
      * Calculates the maximal subset of items whose active periods do <em>not</em> overlap (global scope).
      *
-     * @param itemIds comma‑separated list automatically converted to {@link java.util.List} by Spring
-     * @return JSON body <code>{ "item_ids": ["MLA1", "MLA3"] }</code>
+     * @param itemIds   comma‑separated list automatically converted to {@link java.util.List} by Spring
+     * @param objective {@code count} or {@code price}
+     * @param slots     parallel tracks; {@code 1} (default) is the classic single‑track selection
+     * @param from      optional start of the planning window
+     * @param to        optional end of the planning window
+     * @return JSON body <code>{ "item_ids": ["MLA1", "MLA3"] }</code>, plus <code>"tracks"</code> when
+     *         {@code slots > 1}
      */
     @GetMapping
-    public ResponseEntity<IdsResponse> calculateDiscount(
-            @RequestParam(name = "item_ids") List<String> itemIds) {
+    public CompletableFuture<ResponseEntity<IdsResponse>> calculateDiscount(
+            @RequestParam(name = "item_ids") List<String> itemIds,
+            @RequestParam(name = "objective", defaultValue = "count") String objective,
+            @RequestParam(name = "slots", defaultValue = "1") int slots,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
 
-        List<String> selected = discountService.findMaxNonOverlappingItems(itemIds);
-        return ResponseEntity.ok(new IdsResponse(selected));
+        Objective goal = parseObjective(objective);
+        TimeWindow window = parseWindow(from, to);
+        if (slots < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "slots must be at least 1");
+        }
+        if (slots == 1) {
+            return discountService.findMaxNonOverlappingItemsAsync(itemIds, goal, window)
+                    .thenApply(selected -> ResponseEntity.ok(new IdsResponse(selected, null)));
+        }
+        if (goal != Objective.COUNT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "slots > 1 only supports objective=count");
+        }
+        return discountService.findMaxItemsOnTracksAsync(itemIds, slots, window)
+                .thenApply(schedule -> ResponseEntity.ok(new IdsResponse(schedule.itemIds(), schedule.tracks())));
     }
 
     /**
      * Calculates, <em>for each root category</em>, the maximal subset of items whose active periods do not overlap.
      *
-     * @param itemIds IDs to evaluate
+     * @param itemIds   IDs to evaluate
+     * @param objective {@code count} or {@code price}
+     * @param from      optional start of the planning window
+     * @param to        optional end of the planning window
      * @return list of {@link CategoryGroupDTO} grouped by root category
      */
     @GetMapping("/categories")
-    public ResponseEntity<List<CategoryGroupDTO>> calculateDiscountByCategory(
-            @RequestParam(name = "item_ids") List<String> itemIds) {
+    public CompletableFuture<ResponseEntity<List<CategoryGroupDTO>>> calculateDiscountByCategory(
+            @RequestParam(name = "item_ids") List<String> itemIds,
+            @RequestParam(name = "objective", defaultValue = "count") String objective,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+
+        return discountService.findMaxNonOverlappingItemsByCategoryAsync(itemIds, parseObjective(objective),
+                        parseWindow(from, to))
+                .thenApply(groups -> ResponseEntity.ok(groups));
+    }
+
+    /**
+     * Calculates the global maximal subset for each named ID set in the body, sharing one metadata fetch.
+     *
+     * @param request   named ID sets
+     * @param objective {@code count} or {@code price}
+     * @return JSON body <code>{ "results": { "draftA": ["MLA1"], … } }</code>, sets in request order
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<BatchResponse>> calculateDiscountBatch(
+            @RequestBody BatchRequest request,
+            @RequestParam(name = "objective", defaultValue = "count") String objective) {
+
+        if (request == null || request.sets() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "body must contain 'sets'");
+        }
+        return discountService.findMaxNonOverlappingItemsBatchAsync(request.sets(), parseObjective(objective))
+                .thenApply(results -> ResponseEntity.ok(new BatchResponse(results)));
+    }
+
+    /**
+     * Out‑of‑core selection for offline jobs (count objective, no window, no cache). Neither the body nor
+     * the answer is ever held whole: IDs are read as they arrive and the selected ones are written back,
+     * one per line, as the final merge yields them, so memory stays bounded however many IDs are sent.
+     *
+     * <p>The whole job runs inside the {@link StreamingResponseBody}, i.e. on the MVC async executor, not on
+     * the request thread. Failures before the first selected ID reach the {@code @ControllerAdvice} as
+     * usual; after that the status is already committed and the response is just cut short.</p>
+     *
+     * @param body item IDs, one per line; blank lines are ignored
+     * @return {@code text/plain} body with the selected IDs, one per line, in order of end
+     */
+    @PostMapping(path = "/offline", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateDiscountOffline(InputStream body) {
+        StreamingResponseBody selection = out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                discountService.findMaxNonOverlappingItemsOutOfCore(
+                        reader.lines()
+                              .map(String::trim)
+                              .filter(line -> !line.isEmpty())
+                              .iterator(),
+                        id -> writeLine(writer, id));
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(selection);
+    }
+
+    /**
+     * Opens a scheduling session holding {@code item_ids}; later edits are sent as deltas.
+     *
+     * @return the session ID and its current selection
+     */
+    @PostMapping("/sessions")
+    public CompletableFuture<ResponseEntity<SessionResponse>> createSession(@RequestBody SessionCreateRequest request) {
+        List<String> itemIds = request == null ? null : request.itemIds();
+        return sessionService.create(itemIds)
+                .thenApply(view -> ResponseEntity.status(HttpStatus.CREATED).body(SessionResponse.of(view)));
+    }
+
+    /**
+     * Adds and/or removes items from a session and returns the repaired selection.
+     */
+    @PatchMapping("/sessions/{sessionId}")
+    public CompletableFuture<ResponseEntity<SessionResponse>> updateSession(
+            @PathVariable String sessionId,
+            @RequestBody SessionUpdateRequest request) {
+
+        if (request == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "body must contain 'add' and/or 'remove'");
+        }
+        return sessionService.update(sessionId, request.add(), request.remove())
+                .thenApply(view -> ResponseEntity.ok(SessionResponse.of(view)));
+    }
+
+    @GetMapping("/sessions/{sessionId}")
+    public ResponseEntity<SessionResponse> getSession(@PathVariable String sessionId) {
+        return ResponseEntity.ok(SessionResponse.of(sessionService.get(sessionId)));
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> deleteSession(@PathVariable String sessionId) {
+        sessionService.delete(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static TimeWindow parseWindow(OffsetDateTime from, OffsetDateTime to) {
+        try {
+            return TimeWindow.of(from, to);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 
-        List<CategoryGroupDTO> groups = discountService.findMaxNonOverlappingItemsByCategory(itemIds);
-        return ResponseEntity.ok(groups);
+    private static Objective parseObjective(String raw) {
+        try {
+            return Objective.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "objective must be 'count' or 'price'");
+        }
     }
 
-    /** JSON wrapper used when the response body is a single array of item IDs. */
-    private record IdsResponse(@com.fasterxml.jackson.annotation.JsonProperty("item_ids") List<String> itemIds) {}
+    private static void writeLine(BufferedWriter writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** JSON wrapper used when the response body is a single array of item IDs (and, for slots, the tracks). */
+    private record IdsResponse(
+            @com.fasterxml.jackson.annotation.JsonProperty("item_ids") List<String> itemIds,
+            @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+            @com.fasterxml.jackson.annotation.JsonProperty("tracks") List<List<String>> tracks) {}
+
+    /** Body of {@code POST /batch}: set name → item IDs (order preserved). */
+    private record BatchRequest(@com.fasterxml.jackson.annotation.JsonProperty("sets") Map<String, List<String>> sets) {}
+
+    /** Response of {@code POST /batch}: set name → selected item IDs. */
+    private record BatchResponse(@com.fasterxml.jackson.annotation.JsonProperty("results") Map<String, List<String>> results) {}
+
+    private record SessionCreateRequest(@com.fasterxml.jackson.annotation.JsonProperty("item_ids") List<String> itemIds) {}
+
+    private record SessionUpdateRequest(@com.fasterxml.jackson.annotation.JsonProperty("add") List<String> add,
+                                        @com.fasterxml.jackson.annotation.JsonProperty("remove") List<String> remove) {}
+
+    private record SessionResponse(@com.fasterxml.jackson.annotation.JsonProperty("session_id") String sessionId,
+                                   @com.fasterxml.jackson.annotation.JsonProperty("size") int size,
+                                   @com.fasterxml.jackson.annotation.JsonProperty("item_ids") List<String> itemIds) {
+        static SessionResponse of(SessionView view) {
+            return new SessionResponse(view.sessionId(), view.size(), view.itemIds());
+        }
+    }
 }
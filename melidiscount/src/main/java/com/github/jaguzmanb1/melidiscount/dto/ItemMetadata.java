@@ -0,0 +1,32 @@
+package com.github.jaguzmanb1.melidiscount.dto;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * Compact view of an item with only the fields the discount rules need:
+ * its active period, its (leaf) category and its price (weight for {@code objective=price}).
+ *
+ * <p>{@code start}/{@code end} are epoch microseconds (UTC), which keeps the microsecond precision of
+ * the Items API timestamps without holding two {@link OffsetDateTime} objects per item.</p>
+ */
+public record ItemMetadata(String id, long start, long end, String categoryId, double price) {
+
+    public ItemMetadata {
+        Objects.requireNonNull(id, "id must not be null");
+    }
+
+    public static ItemMetadata of(ItemDTO dto) {
+        Objects.requireNonNull(dto.getDateCreated(), () -> "dateCreated is null for " + dto.getId());
+        Objects.requireNonNull(dto.getLastUpdated(), () -> "lastUpdated is null for " + dto.getId());
+        return new ItemMetadata(dto.getId(),
+                toEpochMicros(dto.getDateCreated()),
+                toEpochMicros(dto.getLastUpdated()),
+                dto.getCategoryId(),
+                dto.getPrice());
+    }
+
+    public static long toEpochMicros(OffsetDateTime t) {
+        return Math.addExact(Math.multiplyExact(t.toEpochSecond(), 1_000_000L), t.getNano() / 1_000);
+    }
+}
@@ -0,0 +1,9 @@
+package com.github.jaguzmanb1.melidiscount.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/** Resultado multi‑track: todos los ítems elegidos (orden por fin) y los de cada track. */
+public record TrackScheduleDTO(
+        @JsonProperty("item_ids") List<String> itemIds,
+        @JsonProperty("tracks")   List<List<String>> tracks) {}
@@ -0,0 +1,157 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AIMD concurrency limiter for outbound calls.
+ *
+ * <p>Each call is timed. While RTT stays within {@code rttTolerance} × the minimum RTT seen in the current
+ * sampling window, the limit grows by roughly one per limit's worth of calls (additive increase); a slower
+ * call, an error or a timeout multiplies it by {@code backoffRatio} (multiplicative decrease). Calls beyond
+ * the limit wait in a bounded FIFO queue; once the queue is full they are rejected immediately, and a call
+ * still queued after {@code maxQueueWait} is rejected then (the slot it would get is better spent on a caller
+ * that has not given up yet).</p>
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final int    RTT_WINDOW    = 1_000;  // muestras antes de reiniciar el RTT mínimo
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int    minLimit;
+    private final int    maxLimit;
+    private final int    maxQueue;
+    private final long   maxQueueWaitNanos;
+    private final double rttTolerance;
+
+    /* ---------- State (guarded by this) ---------- */
+    private double limit;
+    private int    inFlight;
+    private long   minRttNanos = Long.MAX_VALUE;
+    private long   windowMinRttNanos = Long.MAX_VALUE;
+    private int    windowSamples;
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    private final LongAdder rejected = new LongAdder();
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, Duration maxQueueWait,
+                               double rttTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit
+                || maxQueue < 0 || maxQueueWait.isNegative() || maxQueueWait.isZero() || rttTolerance < 1.0) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings");
+        }
+        this.limit             = initialLimit;
+        this.minLimit          = minLimit;
+        this.maxLimit          = maxLimit;
+        this.maxQueue          = maxQueue;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.rttTolerance      = rttTolerance;
+    }
+
+    /**
+     * @return a future completed once the call may start; failed with {@link RejectedExecutionException}
+     *         right away when both the limit and the queue are full, or after {@code maxQueueWait} in the queue
+     */
+    synchronized CompletableFuture<Void> acquire() {
+        if (inFlight < (int) limit) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        if (waiters.size() < maxQueue) {
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+            CompletableFuture.delayedExecutor(maxQueueWaitNanos, TimeUnit.NANOSECONDS)
+                    .execute(() -> expire(waiter));
+            return waiter;
+        }
+        rejected.increment();
+        return CompletableFuture.failedFuture(new RejectedExecutionException("Concurrency limit reached"));
+    }
+
+    /**
+     * Takes a permit only if one is free right now and nobody is queued; never waits and is not counted as
+     * a rejection. For optional work such as hedges.
+     */
+    synchronized boolean tryAcquire() {
+        if (waiters.isEmpty() && inFlight < (int) limit) {
+            inFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    /** Releases a permit and feeds the call's outcome into the limit. */
+    void release(long rttNanos, boolean success) {
+        synchronized (this) {
+            inFlight--;
+            adjust(rttNanos, success);
+        }
+        admitWaiters();
+    }
+
+    /** Releases a permit whose call never reached the upstream (no sample is recorded). */
+    void releaseUnused() {
+        synchronized (this) {
+            inFlight--;
+        }
+        admitWaiters();
+    }
+
+    synchronized double limit()      { return limit; }
+    synchronized int    inFlight()   { return inFlight; }
+    synchronized int    queueDepth() { return waiters.size(); }
+    long rejectedCount()             { return rejected.sum(); }   // cola llena o espera vencida
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private void adjust(long rttNanos, boolean success) {
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        if (++windowSamples >= RTT_WINDOW) {
+            minRttNanos = windowMinRttNanos;   // se olvida el mínimo viejo: el upstream puede cambiar
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        minRttNanos = Math.min(minRttNanos, rttNanos);
+
+        boolean congested = !success || rttNanos > minRttNanos * rttTolerance;
+        limit = congested
+                ? Math.max(minLimit, limit * BACKOFF_RATIO)
+                : Math.min(maxLimit, limit + 1.0 / limit);
+    }
+
+    private void admitWaiters() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                if (waiters.isEmpty() || inFlight >= (int) limit) {
+                    return;
+                }
+                next = waiters.pollFirst();
+                inFlight++;
+            }
+            if (!next.complete(null)) {
+                releaseSlot();   // el llamador canceló mientras esperaba
+            }
+        }
+    }
+
+    /* Si sigue en cola al vencer la espera se rechaza; si ya fue admitido no pasa nada. */
+    private void expire(CompletableFuture<Void> waiter) {
+        if (waiter.completeExceptionally(new RejectedExecutionException("Timed out waiting for a concurrency slot"))) {
+            rejected.increment();
+        }
+        if (waiter.isCompletedExceptionally()) {   // vencido o cancelado: libera su lugar en la cola
+            synchronized (this) {
+                waiters.remove(waiter);
+            }
+        }
+    }
+
+    private synchronized void releaseSlot() {
+        inFlight--;
+    }
+}
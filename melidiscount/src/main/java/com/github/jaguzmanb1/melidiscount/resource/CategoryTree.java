@@ -0,0 +1,196 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import com.github.jaguzmanb1.melidiscount.dto.CategoryGroupDTO;
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In‑memory snapshot of the category tree, reduced to {@code category_id → root_category_id}.
+ *
+ * <p>The tree changes rarely, so it is loaded from <code>/categories/roots</code> when the application
+ * starts and refreshed every {@code external.items-service.category-tree.refresh-interval} on a background
+ * thread. With it, items can be grouped by root category from their {@code category_id} alone, without the
+ * per‑request <code>/categories</code> round trip.</p>
+ *
+ * <p>A failed refresh keeps the previous snapshot. Until the first load succeeds it is retried every
+ * {@code category-tree.retry-interval}; meanwhile (or with {@code category-tree.enabled=false}) the tree is
+ * not {@linkplain #isUsable() usable} and callers group through
+ * {@link ItemsResourceClient#groupByRootCategoryAsync(List)}. A category missing from the snapshot makes
+ * it unusable as well, and triggers an immediate refresh, so the following requests do not each pay for a
+ * miss.</p>
+ *
+ * <p>The refresh thread lives with the application context ({@link SmartLifecycle}): it is started after
+ * the beans are created and shut down with the context.</p>
+ */
+@Component
+public class CategoryTree implements SmartLifecycle {
+
+    private final ItemsResourceClient itemsClient;
+    private final boolean  enabled;
+    private final Duration refreshInterval;
+    private final Duration retryInterval;
+
+    private volatile Map<String, String> rootByCategory = Map.of();
+    private final AtomicBoolean stale = new AtomicBoolean();   // categoría desconocida desde el último refresh
+    private volatile long lastRefreshNanos;
+
+    private ScheduledExecutorService timer;   // guarded by this; null = detenido
+
+    private final LongAdder refreshed     = new LongAdder();
+    private final LongAdder refreshFailed = new LongAdder();
+
+    public CategoryTree(
+            @Value("${external.items-service.category-tree.enabled:true}")
+            boolean enabled,
+            @Value("${external.items-service.category-tree.refresh-interval:10m}")
+            Duration refreshInterval,
+            @Value("${external.items-service.category-tree.retry-interval:5s}")
+            Duration retryInterval,
+            ItemsResourceClient itemsClient,
+            MeterRegistry meterRegistry) {
+
+        this.itemsClient     = itemsClient;
+        this.enabled         = enabled;
+        this.refreshInterval = refreshInterval;
+        this.retryInterval   = retryInterval;
+
+        Gauge.builder("melidiscount.category_tree.size", this, tree -> tree.rootByCategory.size())
+                .description("Categories in the local category→root snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("melidiscount.category_tree.refresh", refreshed, LongAdder::sum)
+                .description("Category tree refresh attempts")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        FunctionCounter.builder("melidiscount.category_tree.refresh", refreshFailed, LongAdder::sum)
+                .description("Category tree refresh attempts")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "category-tree-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.execute(this::refreshAndReschedule);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return timer != null;
+    }
+
+    /** Whether a snapshot is loaded and no item has been seen with a category it does not know since. */
+    public boolean isUsable() {
+        return !rootByCategory.isEmpty() && !stale.get();
+    }
+
+    /**
+     * Groups {@code items} by root category, in order of first appearance.
+     *
+     * @return the groups, or empty if any item's category is not in the snapshot (the caller should then
+     *         ask upstream; the snapshot is refreshed right away)
+     */
+    public Optional<List<CategoryGroupDTO>> group(List<ItemMetadata> items) {
+        Map<String, String> roots = rootByCategory;
+        if (roots.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, List<String>> byRoot = new LinkedHashMap<>();
+        for (ItemMetadata item : items) {
+            String root = item.categoryId() == null ? null : roots.get(item.categoryId());
+            if (root == null) {
+                markStale();
+                return Optional.empty();
+            }
+            byRoot.computeIfAbsent(root, k -> new ArrayList<>()).add(item.id());
+        }
+
+        List<CategoryGroupDTO> groups = new ArrayList<>(byRoot.size());
+        byRoot.forEach((root, ids) -> groups.add(new CategoryGroupDTO(root, List.copyOf(ids))));
+        return Optional.of(List.copyOf(groups));
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    /*
+     * Refresh extra, fuera del ciclo periódico: lo dispara sólo el primer miss, a no menos de retryInterval
+     * del refresh anterior (un ítem cuya categoría nunca aparece no provoca un refresh por request), y se
+     * reintenta mientras el snapshot siga sin refrescarse.
+     */
+    private void markStale() {
+        if (stale.compareAndSet(false, true)) {
+            long sinceLast = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRefreshNanos);
+            run(Math.max(0, retryInterval.toMillis() - sinceLast), this::refreshWhileStale);
+        }
+    }
+
+    private void refreshWhileStale() {
+        refresh();
+        if (stale.get()) {
+            run(retryInterval.toMillis(), this::refreshWhileStale);
+        }
+    }
+
+    /* Ciclo periódico: reintento corto mientras no haya snapshot, el intervalo normal después. */
+    private void refreshAndReschedule() {
+        refresh();
+        long delay = (rootByCategory.isEmpty() ? retryInterval : refreshInterval).toMillis();
+        run(delay, this::refreshAndReschedule);
+    }
+
+    private synchronized void run(long delayMillis, Runnable task) {
+        if (timer != null) {
+            timer.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /* Corre en el hilo de refresh: nunca debe lanzar. */
+    private void refresh() {
+        lastRefreshNanos = System.nanoTime();
+        try {
+            Map<String, String> snapshot = itemsClient.fetchCategoryRootsAsync().get();
+            if (!snapshot.isEmpty()) {
+                rootByCategory = snapshot;
+                stale.set(false);
+            }
+            refreshed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            refreshFailed.increment();
+        } catch (Exception e) {
+            refreshFailed.increment();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Minimal consecutive‑failures circuit breaker.
+ *
+ * <ul>
+ *   <li><b>CLOSED:</b> calls flow; {@code failureThreshold} consecutive failures open the circuit.</li>
+ *   <li><b>OPEN:</b> calls are rejected immediately for {@code openDuration}.</li>
+ *   <li><b>HALF_OPEN:</b> a single trial call is let through; its outcome closes or re‑opens the circuit.</li>
+ * </ul>
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int  failureThreshold;
+    private final long openNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos        = openDuration.toNanos();
+    }
+
+    /** @return {@code true} if the call may proceed; the caller must then report its outcome. */
+    boolean tryAcquire() {
+        return switch (state.get()) {
+            case CLOSED    -> true;
+            case HALF_OPEN -> false;   // ya hay una llamada de prueba en curso
+            case OPEN      -> System.nanoTime() - openedAt >= openNanos
+                              && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        };
+    }
+
+    void onSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.nanoTime();
+            state.set(State.OPEN);
+        }
+    }
+
+    State state() {
+        return state.get();
+    }
+
+    Duration openDuration() {
+        return Duration.ofNanos(openNanos);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Allocation‑free parser for the Items API timestamps
+ * (<code>yyyy-MM-dd'T'HH:mm:ss[.ffffff](Z|±HH:MM)</code>) into epoch microseconds.
+ * Anything outside that shape falls back to {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME}.
+ */
+final class EpochMicros {
+
+    private EpochMicros() {}
+
+    static long parse(String text) {
+        long micros = parseFast(text);
+        return micros != Long.MIN_VALUE
+                ? micros
+                : ItemMetadata.toEpochMicros(OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+    }
+
+    /** @return epoch micros, or {@link Long#MIN_VALUE} when {@code s} is not in the expected shape */
+    private static long parseFast(String s) {
+        int len = s.length();
+        if (len < 20 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+
+        int year   = digits(s, 0, 4);
+        int month  = digits(s, 5, 2);
+        int day    = digits(s, 8, 2);
+        int hour   = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59 || hour < 0 || minute < 0 || second < 0) {
+            return Long.MIN_VALUE;
+        }
+
+        int pos = 19;
+        long fractionMicros = 0;
+        if (s.charAt(pos) == '.') {
+            pos++;
+            int scale = 100_000;
+            int start = pos;
+            while (pos < len && isDigit(s.charAt(pos))) {
+                fractionMicros += (s.charAt(pos) - '0') * (long) scale;
+                scale /= 10;   // más allá de 6 dígitos el aporte es 0 (truncamos a micros)
+                pos++;
+            }
+            if (pos == start || pos - start > 9) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        if (pos >= len) {
+            return Long.MIN_VALUE;
+        }
+        int offsetSeconds;
+        char sign = s.charAt(pos);
+        if (sign == 'Z' && pos + 1 == len) {
+            offsetSeconds = 0;
+        } else if ((sign == '+' || sign == '-') && pos + 6 == len && s.charAt(pos + 3) == ':') {
+            int oh = digits(s, pos + 1, 2);
+            int om = digits(s, pos + 4, 2);
+            if (oh < 0 || om < 0 || oh > 18 || om > 59) {
+                return Long.MIN_VALUE;
+            }
+            offsetSeconds = (oh * 3600 + om * 60) * (sign == '-' ? -1 : 1);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        long epochSeconds = daysFromCivil(year, month, day) * 86_400L
+                + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return epochSeconds * 1_000_000L + fractionMicros;
+    }
+
+    /** Days since 1970‑01‑01 for a proleptic Gregorian date (H. Hinnant's algorithm). */
+    private static long daysFromCivil(int y, int m, int d) {
+        y -= m <= 2 ? 1 : 0;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (m + (m > 2 ? -3 : 9)) + 2) / 5 + d - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097 + doe - 719_468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Request hedging for upstream calls.
+ *
+ * <p>If an attempt has not answered after the configured latency percentile (observed over the last
+ * {@value #WINDOW} calls, never below {@code minDelay}), a second identical attempt is fired and the first
+ * successful one wins; the other is cancelled. Hedges are paid from a token bucket that earns
+ * {@code budgetRatio} tokens per primary call, so at most that fraction of calls is ever duplicated.</p>
+ *
+ * <p>A hedge can also be gated by the caller (e.g. on a free {@link AdaptiveConcurrencyLimiter} permit):
+ * when the gate refuses, the hedge is skipped and its token refunded.</p>
+ */
+final class HedgingPolicy {
+
+    private static final int WINDOW        = 1024;  // latencias recordadas
+    private static final int MIN_SAMPLES   = 100;   // sin datos suficientes no se cubre
+    private static final int RECOMPUTE_GAP = 64;    // cada cuántas muestras se recalcula el percentil
+    private static final double MAX_TOKENS = 10.0;
+
+    private final double percentile;
+    private final long   minDelayNanos;
+    private final double budgetRatio;
+
+    /* ---------- Latency window (guarded by this) ---------- */
+    private final long[] samples = new long[WINDOW];
+    private long sampleCount;
+    private volatile long hedgeDelayNanos = -1;
+
+    /* ---------- Budget (guarded by this) ---------- */
+    private double tokens;
+
+    private final LongAdder fired        = new LongAdder();
+    private final LongAdder won          = new LongAdder();
+    private final LongAdder deniedBudget = new LongAdder();
+    private final LongAdder deniedGate   = new LongAdder();
+
+    HedgingPolicy(double percentile, Duration minDelay, double budgetRatio) {
+        if (percentile <= 0 || percentile >= 1 || budgetRatio < 0 || budgetRatio > 1) {
+            throw new IllegalArgumentException("percentile must be in (0,1) and budgetRatio in [0,1]");
+        }
+        this.percentile    = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio   = budgetRatio;
+    }
+
+    /**
+     * Runs {@code attempt}, hedging it when it is slow.
+     *
+     * @param discard invoked with a successful result that lost the race (e.g. to close its body)
+     */
+    <R> CompletableFuture<R> call(Supplier<CompletableFuture<R>> attempt, Consumer<R> discard) {
+        return call(attempt, attempt, () -> true, discard);
+    }
+
+    /**
+     * Like {@link #call(Supplier, Consumer)}, but the hedge is issued by {@code hedge} and only once
+     * {@code admitHedge} grants it; {@code hedge} owns whatever {@code admitHedge} acquired.
+     */
+    <R> CompletableFuture<R> call(Supplier<CompletableFuture<R>> attempt, Supplier<CompletableFuture<R>> hedge,
+                                  BooleanSupplier admitHedge, Consumer<R> discard) {
+        deposit();
+
+        CompletableFuture<R> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+
+        CompletableFuture<R> primary = timed(attempt);
+        race(primary, result, pending, discard, false);
+
+        long delay = hedgeDelayNanos;
+        if (delay < 0) {
+            return result;
+        }
+
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            if (!withdraw()) {
+                deniedBudget.increment();
+                return;
+            }
+            if (!admitHedge.getAsBoolean()) {
+                refund();
+                deniedGate.increment();
+                return;
+            }
+            fired.increment();
+            pending.incrementAndGet();
+            CompletableFuture<R> second = timed(hedge);
+            race(second, result, pending, discard, true);
+            result.whenComplete((v, ex) -> second.cancel(true));
+        });
+        result.whenComplete((v, ex) -> primary.cancel(true));
+        return result;
+    }
+
+    long firedCount()        { return fired.sum(); }
+    long wonCount()          { return won.sum(); }
+    long deniedBudgetCount() { return deniedBudget.sum(); }
+    long deniedGateCount()   { return deniedGate.sum(); }
+
+    /** Current hedge delay in milliseconds, or -1 while there are not enough samples. */
+    double hedgeDelayMillis() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? -1 : delay / 1_000_000.0;
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private <R> CompletableFuture<R> timed(Supplier<CompletableFuture<R>> attempt) {
+        long t0 = System.nanoTime();
+        CompletableFuture<R> f = attempt.get();
+        f.whenComplete((v, ex) -> {
+            if (ex == null) {
+                record(System.nanoTime() - t0);
+            }
+        });
+        return f;
+    }
+
+    private <R> void race(CompletableFuture<R> attempt, CompletableFuture<R> result,
+                          AtomicInteger pending, Consumer<R> discard, boolean isHedge) {
+        attempt.whenComplete((value, ex) -> {
+            int left = pending.decrementAndGet();
+            if (ex == null) {
+                if (result.complete(value)) {
+                    if (isHedge) {
+                        won.increment();
+                    }
+                } else {
+                    discard.accept(value);
+                }
+            } else if (left == 0) {
+                result.completeExceptionally(ex);   // ninguna otra tentativa en vuelo
+            }
+        });
+    }
+
+    private synchronized void record(long latencyNanos) {
+        samples[(int) (sampleCount % WINDOW)] = latencyNanos;
+        sampleCount++;
+        if (sampleCount >= MIN_SAMPLES && sampleCount % RECOMPUTE_GAP == 0) {
+            int n = (int) Math.min(sampleCount, WINDOW);
+            long[] sorted = Arrays.copyOf(samples, n);
+            Arrays.sort(sorted);
+            long p = sorted[Math.min(n - 1, (int) Math.ceil(percentile * n) - 1)];
+            hedgeDelayNanos = Math.max(p, minDelayNanos);
+        }
+    }
+
+    private synchronized void deposit() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    private synchronized void refund() {
+        tokens = Math.min(MAX_TOKENS, tokens + 1.0);
+    }
+
+    private synchronized boolean withdraw() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token‑level reader for <code>/items</code> responses.
+ *
+ * <p>Walks the array with Jackson's streaming {@link JsonParser} and keeps only
+ * {@code id}, {@code category_id}, {@code price}, {@code date_created} and {@code last_updated}; every
+ * other field (title, seller…) is skipped without being materialised.</p>
+ *
+ * <p>Format‑agnostic: the same reader works over a JSON or a CBOR {@link JsonFactory}. Timestamps may be
+ * ISO‑8601 strings or integers holding epoch microseconds (the binary wire format).</p>
+ */
+final class ItemMetadataReader {
+
+    /** Upstream projection matching exactly the fields this reader keeps. */
+    static final String ATTRIBUTES = "id,category_id,price,date_created,last_updated";
+
+    private final JsonFactory factory;
+
+    ItemMetadataReader(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    List<ItemMetadata> read(InputStream body) throws IOException {
+        try (JsonParser p = factory.createParser(body)) {
+            JsonToken first = p.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                return List.of();
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new JsonParseException(p, "Expected an array of items but got " + first);
+            }
+
+            List<ItemMetadata> items = new ArrayList<>();
+            JsonToken token;
+            while ((token = p.nextToken()) == JsonToken.START_OBJECT) {
+                items.add(readItem(p));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(p, "Expected an item object but got " + token);
+            }
+            return items;
+        }
+    }
+
+    private static ItemMetadata readItem(JsonParser p) throws IOException {
+        String id = null;
+        String categoryId = null;
+        double price = 0;
+        long start = Long.MIN_VALUE;
+        long end = Long.MIN_VALUE;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id"           -> id = p.getValueAsString();
+                case "category_id"  -> categoryId = p.getValueAsString();
+                case "price"        -> price = p.getValueAsDouble();
+                case "date_created" -> start = readTimestamp(p);
+                case "last_updated" -> end = readTimestamp(p);
+                default             -> p.skipChildren();
+            }
+        }
+
+        if (id == null) {
+            throw new JsonParseException(p, "Item without id");
+        }
+        if (start == Long.MIN_VALUE || end == Long.MIN_VALUE) {
+            throw new JsonParseException(p, "date_created/last_updated missing for " + id);
+        }
+        return new ItemMetadata(id, start, end, categoryId, price);
+    }
+
+    private static long readTimestamp(JsonParser p) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_STRING     -> EpochMicros.parse(p.getText());
+            case VALUE_NUMBER_INT -> p.getLongValue();
+            case VALUE_NULL       -> Long.MIN_VALUE;
+            default               -> throw new JsonParseException(p, "Unexpected timestamp token " + p.currentToken());
+        };
+    }
+}
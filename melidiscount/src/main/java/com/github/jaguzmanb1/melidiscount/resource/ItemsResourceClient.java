@@ -3,124 +3,782 @@ package com.github.jaguzmanb1.melidiscount.resource;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.github.jaguzmanb1.melidiscount.dto.CategoryGroupDTO;
 import com.github.jaguzmanb1.melidiscount.dto.ItemDTO;
-import org.springframework.beans.factory.annotation.Value;
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Strongly‑typed client for the Items service.
  * <p>Ahora también consulta <code>/meli_discount/categories</code>.</p>
+ *
+ * <p>Large ID lists are split into chunks of {@code external.items-service.chunk-size} IDs which are
+ * sent concurrently over the shared HTTP/2 client (at most
+ * {@code external.items-service.max-in-flight-chunks} at a time) and merged in request order.</p>
+ *
+ * <p>{@link #fetchItemMetadataAsync(List)} keeps a per‑ID Caffeine cache of {@link ItemMetadata}; only the IDs
+ * missing from it are requested upstream, in one bulk call.</p>
+ *
+ * <p>With {@code external.items-service.batching.enabled=true} those bulk calls go through a
+ * {@link MicroBatcher}: misses from concurrent requests arriving within
+ * {@code batching.window} (or until {@code batching.max-ids} IDs) are merged into one upstream request.
+ * The batcher's timer thread is stopped, and its open batch dispatched, when the bean is destroyed.</p>
+ *
+ * <p>Responses are read as a stream. Metadata lookups use {@link ItemMetadataReader}, which pulls only
+ * the four fields the scheduler needs straight into {@link ItemMetadata}
+ * ({@code external.items-service.streaming-parse=false} falls back to full {@link ItemDTO} binding).</p>
+ *
+ * <p>Lookups are non‑blocking ({@code …Async}, built on {@code sendAsync}); only
+ * {@link #fetchItemMetadataUncached(List)}, used by offline jobs, waits on its future. It also bypasses
+ * the caches, the stale copy and the batcher, so streaming millions of IDs does not evict the online
+ * working set.</p>
+ *
+ * <p>Each upstream request times out after {@code external.items-service.request-timeout}. With
+ * {@code external.items-service.hedging.enabled=true} slow requests are hedged (see {@link HedgingPolicy});
+ * a hedge needs a free limiter permit of its own and is skipped otherwise.</p>
+ *
+ * <p>A {@link CircuitBreaker} fails requests fast while the Items API is unhealthy. When a metadata load
+ * fails, the last known metadata (kept for {@code metadata-cache.stale-ttl}, past the normal TTL) is
+ * served instead for the requested IDs it covers; IDs it does not know are left out, as if unknown upstream,
+ * so a single new ID does not sink the fallback for every caller merged into the same request. A
+ * background revalidation is scheduled for all of them. Stale answers are cached only until their stale
+ * window ends, so a failing upstream never stretches serve‑stale past {@code metadata-cache.stale-ttl}
+ * after the last successful load. The stale copy is bounded on its own by
+ * {@code metadata-cache.stale-max-size}: about 200 bytes per entry (record, ID and category strings,
+ * cache node), so roughly 20 MB at the default of 100,000.</p>
+ *
+ * <p>Metadata requests advertise {@code Accept: application/cbor} (timestamps as epoch‑micros integers)
+ * and fall back to JSON when the server answers with it; see
+ * {@code external.items-service.binary-format.enabled}.</p>
+ *
+ * <p>With {@code external.items-service.compression.enabled=true}, requests for at least
+ * {@code compression.min-ids} IDs advertise {@code Accept-Encoding: gzip, deflate} and the body is
+ * inflated on the fly while it is parsed. Wire and decoded bytes are exported as
+ * {@code melidiscount.items.response.bytes}.</p>
+ *
+ * <p>Outbound requests pass through an {@link AdaptiveConcurrencyLimiter} (AIMD on upstream RTT); excess
+ * requests queue briefly and are rejected once {@code concurrency-limit.max-queue} is full or after
+ * waiting {@code concurrency-limit.max-queue-wait}.</p>
+ *
+ * <p>Metadata requests project the response with {@code attributes=id,category_id,price,date_created,…},
+ * so the Items API does not serialise titles or sellers that would be skipped anyway
+ * ({@code external.items-service.projection.enabled}).</p>
+ *
+ * <p>{@link #groupByRootCategoryAsync(List)} keeps a per‑ID {@code item → root category} cache (an item's root
+ * category practically never changes); only unknown IDs go to <code>/categories</code> and the groups are
+ * rebuilt locally in order of first appearance.</p>
+ *
+ * <p>Settings are bound to the {@link ItemsServiceProperties} records, one per concern.</p>
  */
 @Component
-public class ItemsResourceClient {
+public class ItemsResourceClient implements DisposableBean {
+
+    private static final String CBOR_MEDIA_TYPE = "application/cbor";
 
     /* ---------- Jackson Type Tokens ---------- */
     private static final TypeReference<List<ItemDTO>>           ITEM_LIST_REF   = new TypeReference<>() {};
     private static final TypeReference<List<CategoryGroupDTO>>  GROUP_LIST_REF  = new TypeReference<>() {};
+    private static final TypeReference<Map<String, String>>     ROOTS_REF       = new TypeReference<>() {};
 
     /* ---------- Config ---------- */
     private final String itemsUrl;       // …/items
     private final String categoriesUrl;  // …/meli_discount/categories
     private final HttpClient   httpClient;
     private final ObjectMapper objectMapper;
+    private final int chunkSize;          // IDs por request upstream
+    private final int maxInFlightChunks;  // requests concurrentes por llamada
+    private final Duration requestTimeout;
+    private final int compressionMinIds;  // Integer.MAX_VALUE = nunca pedir compresión
+
+    /* ---------- Transfer metrics ---------- */
+    private final LongAdder wireBytes    = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+
+    /* ---------- Optional hedging of slow requests (null = deshabilitado) ---------- */
+    private final HedgingPolicy hedging;
+
+    /* ---------- Resilience: circuit breaker (null = deshabilitado) + stale fallback ---------- */
+    private final CircuitBreaker breaker;
+    private final AdaptiveConcurrencyLimiter limiter;   // null = deshabilitado
+    private final Cache<String, ItemMetadata> staleMetadata;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> staleUntil = new ConcurrentHashMap<>();   // id → fin de su ventana stale (nanoTime)
+    private final LongAdder staleServed = new LongAdder();
+
+    /* ---------- Decoders ---------- */
+    private final BodyDecoder<ItemDTO>          itemsDecoder;
+    private final BodyDecoder<CategoryGroupDTO> groupsDecoder;
+    private final BodyDecoder<ItemMetadata>     metadataDecoder;
+
+    /* ---------- Per‑item caches: metadata and root category ---------- */
+    private final AsyncCache<String, ItemMetadata> metadataCache;
+    private final Duration metadataTtl;
+    private final AsyncCache<String, String>       rootCategoryCache;
+
+    /* ---------- Optional micro‑batching of cache misses (null = deshabilitado) ---------- */
+    private final MicroBatcher<ItemMetadata> batcher;
 
     public ItemsResourceClient(
-            @Value("${external.items-service.base-url:http://localhost:8080/items}")
-            String itemsUrl,
+            ItemsServiceProperties.Chunking chunking,
+            ItemsServiceProperties.WireFormat wireFormat,
+            ItemsServiceProperties.Caching caching,
+            ItemsServiceProperties.Hedging hedgingSettings,
+            ItemsServiceProperties.Breaker breakerSettings,
+            ItemsServiceProperties.Limiter limiterSettings,
             HttpClient httpClient,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
 
-        this.itemsUrl      = Objects.requireNonNull(itemsUrl, "itemsUrl must not be null");
+        this.itemsUrl      = Objects.requireNonNull(chunking.baseUrl(), "itemsUrl must not be null");
         this.httpClient    = Objects.requireNonNull(httpClient, "httpClient must not be null");
         this.objectMapper  = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
 
+        if (chunking.chunkSize() < 1 || chunking.maxInFlightChunks() < 1) {
+            throw new IllegalArgumentException("chunkSize and maxInFlightChunks must be positive");
+        }
+        this.chunkSize         = chunking.chunkSize();
+        this.maxInFlightChunks = chunking.maxInFlightChunks();
+        this.requestTimeout    = Objects.requireNonNull(chunking.requestTimeout(), "requestTimeout must not be null");
+        this.compressionMinIds = wireFormat.compression().enabled()
+                ? wireFormat.compression().minIds()
+                : Integer.MAX_VALUE;
+
+        this.hedging = hedgingSettings.enabled()
+                ? new HedgingPolicy(hedgingSettings.percentile(), hedgingSettings.minDelay(),
+                                    hedgingSettings.budgetRatio())
+                : null;
+        if (hedging != null) {
+            registerHedgingMetrics(meterRegistry, hedging);
+        }
+
+        ItemsServiceProperties.MetadataCache metadataSettings = caching.metadataCache();
+        this.metadataTtl   = metadataSettings.ttl();
+        this.metadataCache = Caffeine.newBuilder()
+                .maximumSize(metadataSettings.maxSize())
+                .expireAfter(Expiry.<String, ItemMetadata>writing((id, item) -> metadataExpiry(id)))
+                .buildAsync();
+        this.staleMetadata = Caffeine.newBuilder()
+                .maximumSize(metadataSettings.staleMaxSize())
+                .expireAfterWrite(metadataSettings.staleTtl())
+                .build();
+        this.rootCategoryCache = Caffeine.newBuilder()
+                .maximumSize(caching.rootCategoryCache().maxSize())
+                .expireAfterWrite(caching.rootCategoryCache().ttl())
+                .buildAsync();
+
+        this.breaker = breakerSettings.enabled()
+                ? new CircuitBreaker(breakerSettings.failureThreshold(), breakerSettings.openDuration())
+                : null;
+        this.limiter = limiterSettings.enabled()
+                ? new AdaptiveConcurrencyLimiter(limiterSettings.initial(), limiterSettings.min(),
+                                                 limiterSettings.max(), limiterSettings.maxQueue(),
+                                                 limiterSettings.maxQueueWait(), limiterSettings.rttTolerance())
+                : null;
+        registerResilienceMetrics(meterRegistry);
+        registerTransferMetrics(meterRegistry);
+
+        ItemsServiceProperties.Batching batching = chunking.batching();
+        this.batcher = batching.enabled()
+                ? new MicroBatcher<>(this::fetchMetadataAsync, batching.window(), batching.maxIds())
+                : null;
+
         /* Derivamos la URL de categorías a partir de la de items para no pedir más pará‑metros. */
-        this.categoriesUrl = deriveCategoriesUrl(itemsUrl);
+        this.categoriesUrl = deriveCategoriesUrl(this.itemsUrl);
 
         this.objectMapper.registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        this.itemsDecoder  = (body, contentType) -> objectMapper.readValue(body, ITEM_LIST_REF);
+        this.groupsDecoder = (body, contentType) -> objectMapper.readValue(body, GROUP_LIST_REF);
+
+        /* CBOR sólo en modo streaming: el binding a ItemDTO no entiende timestamps en epoch‑micros. */
+        BodyDecoder<ItemMetadata> metadata;
+        if (wireFormat.streamingParse()) {
+            ItemMetadataReader jsonReader = new ItemMetadataReader(objectMapper.getFactory());
+            BodyDecoder<ItemMetadata> json = (body, contentType) -> jsonReader.read(body);
+            metadata = wireFormat.binaryFormat().enabled()
+                    ? preferringCbor(json, new ItemMetadataReader(new CBORFactory()))
+                    : json;
+        } else {
+            metadata = (body, contentType) ->
+                    itemsDecoder.decode(body, contentType).stream().map(ItemMetadata::of).toList();
+        }
+        this.metadataDecoder = wireFormat.projection().enabled()
+                ? projecting(metadata, ItemMetadataReader.ATTRIBUTES)
+                : metadata;
+    }
+
+    /** Flushes the open micro‑batch and stops its timer thread. */
+    @Override
+    public void destroy() {
+        if (batcher != null) {
+            batcher.close();
+        }
     }
 
     /* ========================  PUBLIC API  ======================== */
 
     /**
-     * Llama a <code>/items?ids=…</code>.
+     * Devuelve la metadata compacta de los IDs pedidos (sin duplicados, en el orden recibido).
+     * <p>Read‑through: los IDs ya cacheados no salen de la JVM y los faltantes se piden
+     * upstream en una única llamada bulk. IDs desconocidos por el Items API se omiten.</p>
      */
-    public List<ItemDTO> fetchItemsByIds(List<String> itemIds) {
-        return performGet(
-                itemsUrl,
-                "ids",
-                itemIds,
-                ITEM_LIST_REF,
-                ItemsClientException::new
-        );
+    public CompletableFuture<List<ItemMetadata>> fetchItemMetadataAsync(List<String> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        return metadataCache.getAll(itemIds, (missing, executor) -> loadMetadata(missing))
+                .thenApply(found -> itemIds.stream()
+                        .distinct()
+                        .map(found::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    /**
+     * Igual que {@link #fetchItemMetadataAsync(List)} pero bloqueante y sin pasar por el metadataCache,
+     * la copia stale ni el batcher: para jobs offline que recorren millones de IDs una sola vez y no deben
+     * desalojar la metadata de los requests online. Si el Items API falla, falla (no hay fallback).
+     *
+     * @throws ItemsClientException si la llamada upstream falla
+     */
+    public List<ItemMetadata> fetchItemMetadataUncached(List<String> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> ids = itemIds.stream().distinct().toList();
+        Map<String, ItemMetadata> found = join(fetchMetadataFromUpstream(ids), ItemsClientException::new);
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Quita de {@code itemIds} los que ya están en el metadataCache y cumplen {@code exclude}, sin ir
+     * upstream: permite descartar ítems antes de pedirlos cuando la metadata cacheada ya lo justifica.
+     * Los IDs sin metadata en cache (o con una carga en curso) se conservan.
+     */
+    public List<String> excludeCached(List<String> itemIds, Predicate<ItemMetadata> exclude) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> kept = new ArrayList<>(itemIds.size());
+        for (String id : itemIds) {
+            CompletableFuture<ItemMetadata> cached = metadataCache.getIfPresent(id);
+            ItemMetadata item = cached != null && cached.isDone() && !cached.isCompletedExceptionally()
+                    ? cached.join()
+                    : null;
+            if (item == null || !exclude.test(item)) {
+                kept.add(id);
+            }
+        }
+        return kept;
     }
 
     /**
      * Llama a <code>/meli_discount/categories?item_ids=…</code>
      * y devuelve los grupos por categoría raíz.
+     * <p>Read‑through por ID: sólo los IDs sin categoría raíz cacheada salen upstream; los grupos se
+     * arman localmente en orden de primera aparición. IDs desconocidos por el Items API se omiten.</p>
      */
-    public List<CategoryGroupDTO> groupByRootCategory(List<String> itemIds) {
-        return performGet(
-                categoriesUrl,
-                "ids",
-                itemIds,
-                GROUP_LIST_REF,
-                ItemsClientException::new           // Reutilizamos la misma excepción de dominio
-        );
+    public CompletableFuture<List<CategoryGroupDTO>> groupByRootCategoryAsync(List<String> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        return rootCategoryCache.getAll(itemIds, (missing, executor) -> loadRootCategories(missing))
+                .thenApply(roots -> groupByRoot(itemIds, roots));
     }
 
-    /* ========================  INTERNAL UTILS  ======================== */
+    /**
+     * Llama a <code>/categories/roots</code> y devuelve el índice completo
+     * {@code category_id → root_category_id} (ver {@link CategoryTree}).
+     */
+    public CompletableFuture<Map<String, String>> fetchCategoryRootsAsync() {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(categoriesUrl + "/roots"))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (compressionMinIds != Integer.MAX_VALUE) {
+            builder.header("Accept-Encoding", "gzip, deflate");
+        }
+
+        return send(builder.GET().build(), ItemsClientException::new).thenApply(response -> {
+            try (InputStream body = response.statusCode() == 200 ? decodedBody(response) : response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new ItemsClientException("Service responded HTTP " + response.statusCode());
+                }
+                return Map.copyOf(objectMapper.readValue(body, ROOTS_REF));
+            } catch (IOException e) {
+                throw new ItemsClientException("I/O Deserialization error", e);
+            }
+        });
+    }
+
+    /* ========================  INTERNAL UTILS  ======================== */
+
+    /** Bulk loader del metadataCache: un único fetch (o un lugar en el micro‑batch) para los IDs faltantes. */
+    private CompletableFuture<Map<String, ItemMetadata>> loadMetadata(Set<? extends String> missingIds) {
+        return batcher != null
+                ? batcher.submit(missingIds)
+                : fetchMetadataAsync(List.copyOf(missingIds));
+    }
+
+    /** Bulk loader del rootCategoryCache: los grupos devueltos se aplanan a {@code itemId → rootId}. */
+    private CompletableFuture<Map<String, String>> loadRootCategories(Set<? extends String> missingIds) {
+        return fetchChunked(categoriesUrl, "ids", List.copyOf(missingIds), groupsDecoder,
+                        ItemsClientException::new)  // Reutilizamos la misma excepción de dominio
+                .thenApply(groups -> {
+                    Map<String, String> roots = new HashMap<>();
+                    for (CategoryGroupDTO group : groups) {
+                        for (String id : group.itemIds()) {
+                            roots.put(id, group.rootCategoryId());
+                        }
+                    }
+                    return roots;
+                });
+    }
+
+    /** Upstream fetch con fallback a la última metadata conocida si el Items API falla. */
+    private CompletableFuture<Map<String, ItemMetadata>> fetchMetadataAsync(List<String> ids) {
+        return fetchMetadataFromUpstream(ids)
+                .whenComplete((loaded, ex) -> {
+                    if (ex == null) {
+                        staleMetadata.putAll(loaded);
+                    }
+                })
+                .exceptionally(ex -> serveStale(ids, ex));
+    }
+
+    private Map<String, ItemMetadata> serveStale(List<String> ids, Throwable failure) {
+        Map<String, ItemMetadata> stale = staleMetadata.getAllPresent(ids);
+        if (stale.isEmpty()) {
+            throw failure instanceof CompletionException ce ? ce : new CompletionException(failure);
+        }
+        /* Lo que no esté en el stale queda afuera, igual que un ID que el Items API no conoce. */
+        staleServed.increment();
+        markStaleWindow(stale.keySet());
+        scheduleRevalidation(ids);
+        return stale;
+    }
 
     /**
-     * Utilidad genérica para GET con lista de IDs y deserialización en tipo genérico.
+     * Stale‑while‑revalidate: tras servir metadata vencida se reintenta en segundo plano (una vez pasado el
+     * tiempo de apertura del breaker) y, si responde, se refrescan ambos cachés.
+     */
+    private void scheduleRevalidation(List<String> ids) {
+        List<String> pending = ids.stream().filter(revalidating::add).toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        long delayNanos = breaker != null ? breaker.openDuration().toNanos() : requestTimeout.toNanos();
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() ->
+                fetchMetadataFromUpstream(pending).whenComplete((fresh, ex) -> {
+                    pending.forEach(revalidating::remove);
+                    if (ex == null) {
+                        staleMetadata.putAll(fresh);
+                        fresh.forEach((id, item) -> {
+                            staleUntil.remove(id);
+                            metadataCache.put(id, CompletableFuture.completedFuture(item));
+                        });
+                    }
+                }));
+    }
+
+    /*
+     * Lo servido desde el stale entra al metadataCache como cualquier carga; se anota hasta cuándo sigue
+     * dentro de la ventana stale (staleTtl desde la última carga buena) para que no viva más que eso.
      */
-    private <T> List<T> performGet(
+    private void markStaleWindow(Set<String> ids) {
+        long now = System.nanoTime();
+        staleMetadata.policy().expireAfterWrite().ifPresent(expiry -> {
+            long window = expiry.getExpiresAfter(TimeUnit.NANOSECONDS);
+            for (String id : ids) {
+                expiry.ageOf(id, TimeUnit.NANOSECONDS)
+                        .ifPresent(age -> staleUntil.put(id, now + window - age));
+            }
+        });
+    }
+
+    /** TTL de una escritura en el metadataCache: el normal, o lo que le quede a la ventana stale. */
+    private Duration metadataExpiry(String id) {
+        Long deadline = staleUntil.remove(id);
+        if (deadline == null) {
+            return metadataTtl;
+        }
+        long left = deadline - System.nanoTime();
+        return left <= 0 ? Duration.ZERO : Duration.ofNanos(Math.min(left, metadataTtl.toNanos()));
+    }
+
+    private CompletableFuture<Map<String, ItemMetadata>> fetchMetadataFromUpstream(List<String> ids) {
+        return fetchChunked(itemsUrl, "ids", ids, metadataDecoder, ItemsClientException::new)
+                .thenApply(items -> {
+                    Map<String, ItemMetadata> loaded = new LinkedHashMap<>(items.size() * 2);
+                    for (ItemMetadata item : items) {
+                        loaded.put(item.id(), item);
+                    }
+                    return loaded;
+                });
+    }
+
+    /**
+     * Splits {@code ids} into chunks and drains them with at most {@code maxInFlightChunks}
+     * concurrent requests. Results are concatenated in chunk order. Once a chunk fails the lanes stop
+     * taking new chunks: the call has already failed, so the rest would only load the upstream.
+     */
+    private <T> CompletableFuture<List<T>> fetchChunked(
             String base,
             String paramName,
             List<String> ids,
-            TypeReference<List<T>> ref,
+            BodyDecoder<T> decoder,
             ExceptionFactory exFactory) {
 
         if (ids == null || ids.isEmpty()) {
-            return List.of();
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (ids.size() <= chunkSize) {
+            return performGetAsync(base, paramName, ids, decoder, exFactory);
         }
 
-        try {
-            String idsParam = ids.stream()
-                    .map(id -> URLEncoder.encode(id, StandardCharsets.UTF_8))
-                    .collect(Collectors.joining(","));
+        List<List<String>> chunks = new ArrayList<>((ids.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
 
-            URI uri = URI.create(String.format("%s?%s=%s", base, paramName, idsParam));
+        AtomicReferenceArray<List<T>> parts = new AtomicReferenceArray<>(chunks.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
 
-            HttpRequest request = HttpRequest.newBuilder().uri(uri).GET().build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        /* Cada "lane" toma el siguiente chunk libre cuando termina el anterior. */
+        int lanes = Math.min(maxInFlightChunks, chunks.size());
+        CompletableFuture<?>[] laneFutures = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            laneFutures[i] = drainChunks(chunks, parts, next, failed, base, paramName, decoder, exFactory);
+        }
 
-            if (response.statusCode() != 200) {
-                throw exFactory.build("Service responded HTTP " + response.statusCode());
+        return CompletableFuture.allOf(laneFutures).thenApply(ignored -> {
+            List<T> merged = new ArrayList<>(ids.size());
+            for (int i = 0; i < parts.length(); i++) {
+                merged.addAll(parts.get(i));
             }
+            return List.copyOf(merged);
+        });
+    }
 
-            List<T> result = objectMapper.readValue(response.body(), ref);
-            return result == null ? List.of() : List.copyOf(result);
+    private <T> CompletableFuture<Void> drainChunks(
+            List<List<String>> chunks,
+            AtomicReferenceArray<List<T>> parts,
+            AtomicInteger next,
+            AtomicBoolean failed,
+            String base,
+            String paramName,
+            BodyDecoder<T> decoder,
+            ExceptionFactory exFactory) {
 
+        if (failed.get()) {
+            return CompletableFuture.completedFuture(null);   // otra lane ya falló: no seguimos pidiendo
+        }
+        int idx = next.getAndIncrement();
+        if (idx >= chunks.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return performGetAsync(base, paramName, chunks.get(idx), decoder, exFactory)
+                .whenComplete((part, ex) -> {
+                    if (ex != null) {
+                        failed.set(true);
+                    }
+                })
+                .thenCompose(part -> {
+                    parts.set(idx, part);
+                    return drainChunks(chunks, parts, next, failed, base, paramName, decoder, exFactory);
+                });
+    }
+
+    /**
+     * Utilidad genérica para GET con lista de IDs y deserialización en tipo genérico.
+     * <p>Un 404 del Items API ("ningún ID encontrado") se interpreta como lista vacía, de modo que un
+     * chunk sin coincidencias no invalida el resto del lote.</p>
+     */
+    private <T> CompletableFuture<List<T>> performGetAsync(
+            String base,
+            String paramName,
+            List<String> ids,
+            BodyDecoder<T> decoder,
+            ExceptionFactory exFactory) {
+
+        String idsParam = ids.stream()
+                .map(id -> URLEncoder.encode(id, StandardCharsets.UTF_8))
+                .collect(Collectors.joining(","));
+
+        String attributes = decoder.attributes();
+        URI uri = URI.create(attributes == null
+                ? String.format("%s?%s=%s", base, paramName, idsParam)
+                : String.format("%s?%s=%s&attributes=%s", base, paramName, idsParam, attributes));
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(requestTimeout)
+                .header("Accept", decoder.accept());
+        if (ids.size() >= compressionMinIds) {
+            builder.header("Accept-Encoding", "gzip, deflate");
+        }
+        HttpRequest request = builder.GET().build();
+
+        return send(request, exFactory).thenApply(response -> {
+            try (InputStream body = response.statusCode() == 200 ? decodedBody(response) : response.body()) {
+                if (response.statusCode() == 404) {
+                    return List.<T>of();
+                }
+                if (response.statusCode() != 200) {
+                    throw exFactory.build("Service responded HTTP " + response.statusCode());
+                }
+                List<T> result = decoder.decode(body, response.headers().firstValue("Content-Type").orElse(null));
+                return result == null ? List.<T>of() : Collections.unmodifiableList(result);
+            } catch (IOException e) {
+                throw exFactory.build("I/O Deserialization error", e);
+            }
+        });
+    }
+
+    /**
+     * Concurrency limiter → circuit breaker → (hedged) {@code sendAsync}. Transport errors and 5xx are
+     * reported as failures to both the breaker and the limiter.
+     */
+    private CompletableFuture<HttpResponse<InputStream>> send(HttpRequest request, ExceptionFactory exFactory) {
+        CompletableFuture<Void> admitted = limiter != null ? limiter.acquire() : CompletableFuture.completedFuture(null);
+
+        /* Cola llena, espera vencida o expulsado: siempre el mismo error de dominio, llegue cuando llegue. */
+        return admitted.exceptionallyCompose(ex -> CompletableFuture.failedFuture(
+                        exFactory.build("Items service concurrency limit reached", ex)))
+                .thenCompose(ignored -> {
+            if (breaker != null && !breaker.tryAcquire()) {
+                if (limiter != null) {
+                    limiter.releaseUnused();
+                }
+                return CompletableFuture.<HttpResponse<InputStream>>failedFuture(
+                        exFactory.build("Items service circuit breaker is open"));
+            }
+
+            long startNanos = System.nanoTime();
+            CompletableFuture<HttpResponse<InputStream>> sent = hedging == null
+                    ? httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                    : hedging.call(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()),
+                                   () -> sendHedge(request),
+                                   () -> limiter == null || limiter.tryAcquire(),
+                                   ItemsResourceClient::discardBody);
+
+            return sent.whenComplete((response, ex) -> {
+                boolean healthy = ex == null && response.statusCode() < 500;
+                if (breaker != null) {
+                    if (healthy) {
+                        breaker.onSuccess();
+                    } else {
+                        breaker.onFailure();
+                    }
+                }
+                if (limiter != null) {
+                    limiter.release(System.nanoTime() - startNanos, healthy);
+                }
+            });
+        });
+    }
+
+    /*
+     * El hedge corre con su propio permiso del limiter (tomado por tryAcquire), así el AIMD ve la concurrencia
+     * real; si pierde la carrera y se cancela, el permiso se devuelve sin muestra de RTT.
+     */
+    private CompletableFuture<HttpResponse<InputStream>> sendHedge(HttpRequest request) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<HttpResponse<InputStream>> hedge =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (limiter != null) {
+            hedge.whenComplete((response, ex) -> {
+                if (ex instanceof CancellationException) {
+                    limiter.releaseUnused();
+                } else {
+                    limiter.release(System.nanoTime() - startNanos, ex == null && response.statusCode() < 500);
+                }
+            });
+        }
+        return hedge;
+    }
+
+    /**
+     * Blocks until {@code future} completes, translating failures into {@link ItemsClientException}.
+     */
+    private static <T> T join(CompletableFuture<T> future, ExceptionFactory exFactory) {
+        try {
+            return future.get();
         } catch (InterruptedException ie) {
+            future.cancel(true);
             Thread.currentThread().interrupt();
             throw exFactory.build("Call interrupted", ie);
-        } catch (Exception e) {
-            throw exFactory.build("I/O Deserialization error", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof ItemsClientException ice) {
+                throw ice;
+            }
+            throw exFactory.build("I/O Deserialization error", cause);
+        }
+    }
+
+    /** Agrupa los IDs por categoría raíz, sin duplicados y en orden de primera aparición. */
+    private static List<CategoryGroupDTO> groupByRoot(List<String> itemIds, Map<String, String> rootById) {
+        Map<String, List<String>> byRoot = new LinkedHashMap<>();
+        for (String id : new LinkedHashSet<>(itemIds)) {
+            String root = rootById.get(id);
+            if (root != null) {
+                byRoot.computeIfAbsent(root, k -> new ArrayList<>()).add(id);
+            }
         }
+        List<CategoryGroupDTO> groups = new ArrayList<>(byRoot.size());
+        byRoot.forEach((root, ids) -> groups.add(new CategoryGroupDTO(root, List.copyOf(ids))));
+        return List.copyOf(groups);
+    }
+
+    /**
+     * Envuelve el body con el descompresor que indique {@code Content-Encoding}, contando bytes antes
+     * (wire) y después (decoded) de descomprimir.
+     */
+    private InputStream decodedBody(HttpResponse<InputStream> response) throws IOException {
+        InputStream wire = new CountingInputStream(response.body(), wireBytes);
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity").trim();
+
+        InputStream decoded;
+        try {
+            if (encoding.equalsIgnoreCase("gzip")) {
+                decoded = new GZIPInputStream(wire, 8192);   // lee el header gzip ya mismo
+            } else if (encoding.equalsIgnoreCase("deflate")) {
+                decoded = new InflaterInputStream(wire);
+            } else {
+                decoded = wire;
+            }
+        } catch (IOException e) {
+            wire.close();
+            throw e;
+        }
+        return new CountingInputStream(decoded, decodedBytes);
+    }
+
+    /* La respuesta perdedora de un hedge ya no se lee: liberamos su stream HTTP/2. */
+    private static void discardBody(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // nada que hacer: la respuesta ya no interesa
+        }
+    }
+
+    private static void registerHedgingMetrics(MeterRegistry registry, HedgingPolicy policy) {
+        FunctionCounter.builder("melidiscount.items.hedges", policy, HedgingPolicy::firedCount)
+                .description("Duplicate upstream requests fired because the first one was slow")
+                .tag("outcome", "fired")
+                .register(registry);
+        FunctionCounter.builder("melidiscount.items.hedges", policy, HedgingPolicy::wonCount)
+                .description("Hedged requests that answered before the original one")
+                .tag("outcome", "won")
+                .register(registry);
+        FunctionCounter.builder("melidiscount.items.hedges", policy, HedgingPolicy::deniedBudgetCount)
+                .description("Hedges skipped because the hedging budget was exhausted")
+                .tag("outcome", "denied_budget")
+                .register(registry);
+        FunctionCounter.builder("melidiscount.items.hedges", policy, HedgingPolicy::deniedGateCount)
+                .description("Hedges skipped because the concurrency limiter had no free permit")
+                .tag("outcome", "denied_limit")
+                .register(registry);
+        Gauge.builder("melidiscount.items.hedge.delay", policy, HedgingPolicy::hedgeDelayMillis)
+                .description("Current hedging delay (-1 while warming up)")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void registerResilienceMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("melidiscount.items.stale.served", staleServed, LongAdder::sum)
+                .description("Metadata loads answered from last known values because the Items API failed")
+                .register(registry);
+        if (breaker != null) {
+            Gauge.builder("melidiscount.items.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("Items API circuit breaker state (0=closed, 1=open, 2=half-open)")
+                    .register(registry);
+        }
+        if (limiter != null) {
+            Gauge.builder("melidiscount.items.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                    .description("Current adaptive limit of concurrent Items API requests")
+                    .register(registry);
+            Gauge.builder("melidiscount.items.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                    .description("Items API requests currently in flight")
+                    .register(registry);
+            Gauge.builder("melidiscount.items.concurrency.queue", limiter, AdaptiveConcurrencyLimiter::queueDepth)
+                    .description("Requests waiting for a concurrency permit")
+                    .register(registry);
+            FunctionCounter.builder("melidiscount.items.concurrency.rejected", limiter,
+                            AdaptiveConcurrencyLimiter::rejectedCount)
+                    .description("Requests rejected because the limit and the queue were full or the queue wait expired")
+                    .register(registry);
+        }
+    }
+
+    private void registerTransferMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("melidiscount.items.response.bytes", wireBytes, LongAdder::sum)
+                .description("Response body bytes received from the Items API, as sent on the wire")
+                .baseUnit("bytes")
+                .tag("stage", "wire")
+                .register(registry);
+        FunctionCounter.builder("melidiscount.items.response.bytes", decodedBytes, LongAdder::sum)
+                .description("Response body bytes after decompression")
+                .baseUnit("bytes")
+                .tag("stage", "decoded")
+                .register(registry);
     }
 
     private static String deriveCategoriesUrl(String itemsUrl) {
@@ -136,6 +794,59 @@ public class ItemsResourceClient {
         public ItemsClientException(String msg, Throwable c) { super(msg, c); }
     }
 
+    /* Decodifica el body de una respuesta 200 sin pasar por un String intermedio */
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        List<T> decode(InputStream body, String contentType) throws IOException;
+
+        /** Valor del header Accept que corresponde a este decoder. */
+        default String accept() {
+            return "application/json";
+        }
+
+        /** Atributos a pedir con {@code attributes=} ({@code null} = ítem completo). */
+        default String attributes() {
+            return null;
+        }
+    }
+
+    /* Mismo decoder, pidiendo al servidor sólo los atributos que consume. */
+    private static <T> BodyDecoder<T> projecting(BodyDecoder<T> delegate, String attributes) {
+        return new BodyDecoder<>() {
+            @Override
+            public List<T> decode(InputStream body, String contentType) throws IOException {
+                return delegate.decode(body, contentType);
+            }
+
+            @Override
+            public String accept() {
+                return delegate.accept();
+            }
+
+            @Override
+            public String attributes() {
+                return attributes;
+            }
+        };
+    }
+
+    /* Pide CBOR pero acepta JSON si el servidor no lo habla. */
+    private static BodyDecoder<ItemMetadata> preferringCbor(BodyDecoder<ItemMetadata> json, ItemMetadataReader cbor) {
+        return new BodyDecoder<>() {
+            @Override
+            public List<ItemMetadata> decode(InputStream body, String contentType) throws IOException {
+                return contentType != null && contentType.startsWith(CBOR_MEDIA_TYPE)
+                        ? cbor.read(body)
+                        : json.decode(body, contentType);
+            }
+
+            @Override
+            public String accept() {
+                return CBOR_MEDIA_TYPE + ", application/json;q=0.9";
+            }
+        };
+    }
+
     /* Pequeña factory para no duplicar código en performGet */
     @FunctionalInterface
     private interface ExceptionFactory {
@@ -0,0 +1,89 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of {@link ItemsResourceClient}, one record per concern. Every record binds under
+ * {@code external.items-service}, so the property names are unchanged; absent properties take the
+ * defaults below.
+ */
+public final class ItemsServiceProperties {
+
+    private ItemsServiceProperties() {
+    }
+
+    /** Upstream endpoint, how ID lists are split and fanned out, and micro‑batching of cache misses. */
+    @ConfigurationProperties("external.items-service")
+    public record Chunking(@DefaultValue("http://localhost:8080/items") String baseUrl,
+                           @DefaultValue("200") int chunkSize,
+                           @DefaultValue("8") int maxInFlightChunks,
+                           @DefaultValue("5s") Duration requestTimeout,
+                           @DefaultValue Batching batching) {
+    }
+
+    public record Batching(@DefaultValue("false") boolean enabled,
+                           @DefaultValue("2ms") Duration window,
+                           @DefaultValue("1000") int maxIds) {
+    }
+
+    /** How responses are requested and decoded. */
+    @ConfigurationProperties("external.items-service")
+    public record WireFormat(@DefaultValue("true") boolean streamingParse,
+                             @DefaultValue Toggle binaryFormat,
+                             @DefaultValue Toggle projection,
+                             @DefaultValue Compression compression) {
+    }
+
+    /** A feature that is on unless {@code enabled=false}. */
+    public record Toggle(@DefaultValue("true") boolean enabled) {
+    }
+
+    public record Compression(@DefaultValue("false") boolean enabled,
+                              @DefaultValue("50") int minIds) {
+    }
+
+    /** Per‑ID caches; the stale copy of the metadata is bounded on its own. */
+    @ConfigurationProperties("external.items-service")
+    public record Caching(@DefaultValue MetadataCache metadataCache,
+                          @DefaultValue RootCategoryCache rootCategoryCache) {
+    }
+
+    public record MetadataCache(@DefaultValue("100000") long maxSize,
+                                @DefaultValue("15m") Duration ttl,
+                                @DefaultValue("100000") long staleMaxSize,
+                                @DefaultValue("24h") Duration staleTtl) {
+    }
+
+    public record RootCategoryCache(@DefaultValue("200000") long maxSize,
+                                    @DefaultValue("6h") Duration ttl) {
+    }
+
+    /** See {@link HedgingPolicy}. */
+    @ConfigurationProperties("external.items-service.hedging")
+    public record Hedging(@DefaultValue("false") boolean enabled,
+                          @DefaultValue("0.95") double percentile,
+                          @DefaultValue("10ms") Duration minDelay,
+                          @DefaultValue("0.1") double budgetRatio) {
+    }
+
+    /** See {@link CircuitBreaker}. */
+    @ConfigurationProperties("external.items-service.circuit-breaker")
+    public record Breaker(@DefaultValue("true") boolean enabled,
+                          @DefaultValue("5") int failureThreshold,
+                          @DefaultValue("10s") Duration openDuration) {
+    }
+
+    /** See {@link AdaptiveConcurrencyLimiter}. */
+    @ConfigurationProperties("external.items-service.concurrency-limit")
+    public record Limiter(@DefaultValue("true") boolean enabled,
+                          @DefaultValue("20") int initial,
+                          @DefaultValue("2") int min,
+                          @DefaultValue("200") int max,
+                          @DefaultValue("200") int maxQueue,
+                          @DefaultValue("1s") Duration maxQueueWait,
+                          @DefaultValue("2.0") double rttTolerance) {
+    }
+}
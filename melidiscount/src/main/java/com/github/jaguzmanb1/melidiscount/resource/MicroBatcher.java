@@ -0,0 +1,166 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects ID lookups that arrive within a short window and resolves them with a single bulk call.
+ *
+ * <p>A batch is dispatched when its window elapses or when it reaches {@code maxIds} distinct IDs,
+ * whichever happens first. Every caller receives only the slice of the merged result it asked for.</p>
+ *
+ * <p>{@link #close()} dispatches the open batch and stops the timer thread; lookups submitted afterwards
+ * go straight to the bulk loader, unbatched.</p>
+ *
+ * @param <V> value resolved per ID
+ */
+final class MicroBatcher<V> implements AutoCloseable {
+
+    private final Function<List<String>, CompletableFuture<Map<String, V>>> bulkLoader;
+    private final long windowNanos;
+    private final int  maxIds;
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    private Batch<V> current;   // guarded by lock
+    private boolean  closed;    // guarded by lock
+
+    MicroBatcher(Function<List<String>, CompletableFuture<Map<String, V>>> bulkLoader,
+                 Duration window,
+                 int maxIds) {
+        this.bulkLoader  = Objects.requireNonNull(bulkLoader, "bulkLoader must not be null");
+        this.windowNanos = Objects.requireNonNull(window, "window must not be null").toNanos();
+        this.maxIds      = maxIds;
+        if (windowNanos <= 0 || maxIds < 1) {
+            throw new IllegalArgumentException("window and maxIds must be positive");
+        }
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "items-micro-batcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Enqueues {@code ids} in the open batch.
+     *
+     * @return future with the values found for {@code ids}; IDs unknown upstream are absent
+     */
+    CompletableFuture<Map<String, V>> submit(Collection<? extends String> ids) {
+        Batch<V> full = null;
+        CompletableFuture<Map<String, V>> slice;
+
+        synchronized (lock) {
+            if (closed) {
+                slice = null;   // cerrado: se carga fuera del lock, sin batch
+            } else {
+                if (current == null) {
+                    Batch<V> batch = new Batch<>();
+                    batch.timeout = timer.schedule(() -> flushIfCurrent(batch), windowNanos, TimeUnit.NANOSECONDS);
+                    current = batch;
+                }
+                current.ids.addAll(ids);
+                slice = current.result.thenApply(all -> sliceOf(all, ids));
+
+                if (current.ids.size() >= maxIds) {
+                    full = current;
+                    current = null;
+                    full.timeout.cancel(false);
+                }
+            }
+        }
+
+        if (slice == null) {
+            return load(ids);
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return slice;
+    }
+
+    /** Dispatches the open batch, if any, and shuts the timer down. Idempotent. */
+    @Override
+    public void close() {
+        Batch<V> pending;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending = current;
+            current = null;
+            if (pending != null) {
+                pending.timeout.cancel(false);
+            }
+        }
+        timer.shutdown();
+        if (pending != null) {
+            dispatch(pending);
+        }
+    }
+
+    private void flushIfCurrent(Batch<V> batch) {
+        synchronized (lock) {
+            if (current != batch) {
+                return;   // ya se despachó por tamaño
+            }
+            current = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<V> batch) {
+        CompletableFuture<Map<String, V>> loaded;
+        try {
+            loaded = bulkLoader.apply(List.copyOf(batch.ids));
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+            return;
+        }
+        loaded.whenComplete((values, ex) -> {
+            if (ex != null) {
+                batch.result.completeExceptionally(ex);
+            } else {
+                batch.result.complete(values);
+            }
+        });
+    }
+
+    private CompletableFuture<Map<String, V>> load(Collection<? extends String> ids) {
+        try {
+            return bulkLoader.apply(List.copyOf(new LinkedHashSet<>(ids)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <V> Map<String, V> sliceOf(Map<String, V> all, Collection<? extends String> ids) {
+        Map<String, V> slice = new HashMap<>(ids.size() * 2);
+        for (String id : ids) {
+            V value = all.get(id);
+            if (value != null) {
+                slice.put(id, value);
+            }
+        }
+        return slice;
+    }
+
+    private static final class Batch<V> {
+        final LinkedHashSet<String> ids = new LinkedHashSet<>();
+        final CompletableFuture<Map<String, V>> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout;
+    }
+}
@@ -1,21 +1,43 @@
 package com.github.jaguzmanb1.melidiscount.service;
 
+import com.github.jaguzmanb1.melidiscount.config.CacheConfig;
 import com.github.jaguzmanb1.melidiscount.dto.CategoryGroupDTO;
-import com.github.jaguzmanb1.melidiscount.dto.ItemDTO;
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import com.github.jaguzmanb1.melidiscount.dto.TrackScheduleDTO;
+import com.github.jaguzmanb1.melidiscount.resource.CategoryTree;
 import com.github.jaguzmanb1.melidiscount.resource.ItemsResourceClient;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.ExternalIntervalScheduler;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.IntervalScheduler;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.MultiTrackScheduler;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.SchedulingEngine;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.WeightedIntervalScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
-import java.time.OffsetDateTime;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service responsible for applying the «Meli Discount» rule set.
  *
  * <p><b>Primary responsibility:</b> Retrieve item metadata and compute the maximum
- * subset of items whose active periods do not overlap (<em>interval‑scheduling greedy algorithm</em>).</p>
+ * subset of items whose active periods do not overlap (<em>interval‑scheduling greedy algorithm</em>).
+ * With {@link Objective#PRICE} the subset maximises total price instead (<em>weighted interval
+ * scheduling</em>); the objective is part of every cache and in‑flight key.</p>
  *
  * <p><b>Design principles</b></p>
  * <ul>
@@ -23,112 +45,404 @@ import java.util.stream.Collectors;
  *   <li><b>D – Dependency Inversion:</b> Depends directly on the abstraction exposed by {@code ItemsResourceClient}.</li>
  *   <li>Minimal framework annotations keep the class easily unit‑testable.</li>
  * </ul>
+ *
+ * <p>Concurrent cache misses for the same canonical ID set are coalesced with a {@link SingleFlight}
+ * so they share one computation (and one upstream fetch). Callers that joined an existing flight are
+ * counted in {@code melidiscount.singleflight.calls{role=joined}}.</p>
+ *
+ * <p>Once the {@link CategoryTree} snapshot is loaded, per‑category results need only item metadata:
+ * root categories are resolved locally from each item's {@code category_id}.</p>
+ *
+ * <p>Each scheduling call runs on the {@link SchedulingEngine} that {@link SchedulingEngineSelector} picks
+ * for its size and shape. Batches of at least {@code discount.by-category.parallel-threshold} items with
+ * more than one root category are scheduled one category per task on the common fork‑join pool (when
+ * there is more than one core); results keep group order. Smaller batches stay on the calling thread.</p>
+ *
+ * <p>{@link #findMaxNonOverlappingItemsBatchAsync(Map, Objective)} answers many ID sets at once with a
+ * single metadata fetch for the union of the sets not already in the {@code "discounts"} cache.</p>
+ *
+ * <p>{@link #findMaxItemsOnTracksAsync(List, int)} schedules onto {@code k} parallel tracks
+ * ({@link MultiTrackScheduler}); a single track is the plain greedy above.</p>
+ *
+ * <p>An optional {@link TimeWindow} clips every item to the window. Items outside it are dropped before
+ * sorting and, when the cached metadata already proves it, before being fetched.</p>
+ *
+ * <p>{@link #findMaxNonOverlappingItemsOutOfCore(Iterator, Consumer)} is the mode for offline jobs over millions of
+ * IDs: metadata is fetched in chunks of {@code discount.out-of-core.fetch-chunk}, bypassing the metadata
+ * caches, and fed to an {@link ExternalIntervalScheduler}, which spills sorted runs to
+ * {@code discount.out-of-core.temp-dir} and merges them, so memory stays within
+ * {@code discount.out-of-core.memory-budget} whatever the input size.</p>
  */
 @Service
 public class DiscountService {
 
     private final ItemsResourceClient itemsClient;
+    private final CategoryTree        categoryTree;
+    private final SchedulingEngineSelector engines;
+    private final Cache               discountsCache;     // el mismo que usa @Cacheable("discounts")
+    private final long                outOfCoreBudget;
+    private final Path                outOfCoreTempDir;   // null = java.io.tmpdir
+    private final int                 outOfCoreFetchChunk;
+
+    private final LongAdder outOfCoreRuns = new LongAdder();
+
+    private final SingleFlight<String, List<String>>           discountsFlight  = new SingleFlight<>();
+    private final SingleFlight<String, List<CategoryGroupDTO>> byCategoryFlight = new SingleFlight<>();
+    private final SingleFlight<String, TrackScheduleDTO>       tracksFlight     = new SingleFlight<>();
 
-    public DiscountService(@NonNull ItemsResourceClient itemsClient) {
-        this.itemsClient = Objects.requireNonNull(itemsClient, "itemsClient must not be null");
+    public DiscountService(@NonNull ItemsResourceClient itemsClient,
+                           @NonNull CategoryTree categoryTree,
+                           @NonNull SchedulingEngineSelector engines,
+                           @NonNull MeterRegistry meterRegistry,
+                           @NonNull CacheManager cacheManager,
+                           @Value("${discount.out-of-core.memory-budget:64MB}") DataSize outOfCoreBudget,
+                           @Value("${discount.out-of-core.temp-dir:}") String outOfCoreTempDir,
+                           @Value("${discount.out-of-core.fetch-chunk:10000}") int outOfCoreFetchChunk) {
+        this.itemsClient       = Objects.requireNonNull(itemsClient, "itemsClient must not be null");
+        this.categoryTree      = Objects.requireNonNull(categoryTree, "categoryTree must not be null");
+        this.engines           = Objects.requireNonNull(engines, "engines must not be null");
+        this.discountsCache    = Objects.requireNonNull(cacheManager.getCache("discounts"), "\"discounts\" cache is not configured");
+        this.outOfCoreBudget     = outOfCoreBudget.toBytes();
+        this.outOfCoreTempDir    = outOfCoreTempDir == null || outOfCoreTempDir.isBlank() ? null : Path.of(outOfCoreTempDir);
+        this.outOfCoreFetchChunk = Math.max(1, outOfCoreFetchChunk);
+
+        Objects.requireNonNull(meterRegistry, "meterRegistry must not be null");
+        registerFlightMetrics(meterRegistry, "discounts", discountsFlight);
+        registerFlightMetrics(meterRegistry, "discountsByCategory", byCategoryFlight);
+        registerFlightMetrics(meterRegistry, "tracks", tracksFlight);
+        FunctionCounter.builder("melidiscount.out_of_core.runs", outOfCoreRuns, LongAdder::sum)
+                .description("Sorted runs spilled to disk by out-of-core scheduling")
+                .register(meterRegistry);
     }
 
     /**
-     * Returns the maximum set of item IDs whose active periods are pairwise non‑overlapping.
+     * Returns the set of item IDs whose active periods are pairwise non‑overlapping and that maximises
+     * {@code objective}.
      *
-     * @param itemIds raw item IDs (an empty or {@code null} collection yields an empty result)
-     * @return an immutable list of selected IDs, never {@code null}
+     * @param itemIds   raw item IDs (an empty or {@code null} collection yields an empty result)
+     * @param objective what to maximise ({@code null} = {@link Objective#COUNT})
+     * @param window    planning window ({@code null} = whole lifetime of each item)
+     * @return future with an immutable list of selected IDs, never {@code null}
      */
     @Cacheable(value = "discounts", keyGenerator = "sortedIdsKeyGenerator")
-    public List<String> findMaxNonOverlappingItems(List<String> itemIds) {
+    public CompletableFuture<List<String>> findMaxNonOverlappingItemsAsync(List<String> itemIds,
+                                                                           Objective objective,
+                                                                           TimeWindow window) {
         if (itemIds == null || itemIds.isEmpty()) {
-            return List.of();
+            return CompletableFuture.completedFuture(List.of());
         }
 
-        List<ItemDTO> items = itemsClient.fetchItemsByIds(itemIds);
-        if (items.isEmpty()) {
-            return List.of();
+        Objective goal = objective == null ? Objective.COUNT : objective;
+        return discountsFlight.executeAsync(CacheConfig.requestKey(itemIds, goal, window),
+                () -> itemsClient.fetchItemMetadataAsync(prune(itemIds, window))
+                        .thenApply(items -> selectNonOverlapping(items, goal, window)));
+    }
+
+    /**
+     * Returns the largest set of items that fits on {@code tracks} parallel tracks (no two items on the
+     * same track overlap), with the items of each track.
+     *
+     * @param itemIds raw item IDs (an empty or {@code null} collection yields an empty result)
+     * @param tracks  number of parallel tracks, at least 1
+     * @param window  planning window ({@code null} = whole lifetime of each item)
+     */
+    @Cacheable(value = "discountsByTracks", keyGenerator = "sortedIdsKeyGenerator")
+    public CompletableFuture<TrackScheduleDTO> findMaxItemsOnTracksAsync(List<String> itemIds, int tracks,
+                                                                         TimeWindow window) {
+        if (tracks < 1) {
+            throw new IllegalArgumentException("tracks must be at least 1");
+        }
+        if (itemIds == null || itemIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new TrackScheduleDTO(List.of(), List.of()));
         }
 
-        var sortedIntervals = items.stream()
-                .map(ItemInterval::of)
-                .sorted(Comparator.comparing(ItemInterval::end))
-                .toList();
+        return tracksFlight.executeAsync(CacheConfig.requestKey(itemIds, tracks, window),
+                () -> itemsClient.fetchItemMetadataAsync(prune(itemIds, window))
+                        .thenApply(items -> selectOnTracks(items, tracks, window)));
+    }
 
-        List<String> selectedIds = new ArrayList<>();
-        OffsetDateTime lastEnd = null;
+    /**
+     * For each root category, returns the non‑overlapping subset of items that maximises {@code objective}.
+     *
+     * @param itemIds   raw item IDs (an empty or {@code null} collection yields an empty result)
+     * @param objective what to maximise ({@code null} = {@link Objective#COUNT})
+     * @param window    planning window ({@code null} = whole lifetime of each item)
+     * @return future with a list of {@link CategoryGroupDTO} as required by the public contract,
+     *         never {@code null}
+     */
+    @Cacheable(value = "discountsByCategory", keyGenerator = "sortedIdsKeyGenerator")
+    public CompletableFuture<List<CategoryGroupDTO>> findMaxNonOverlappingItemsByCategoryAsync(List<String> itemIds,
+                                                                                               Objective objective,
+                                                                                               TimeWindow window) {
+        if (itemIds == null || itemIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
 
-        for (ItemInterval interval : sortedIntervals) {
-            if (lastEnd == null || !lastEnd.isAfter(interval.start())) {
-                selectedIds.add(interval.itemId());
-                lastEnd = interval.end();
-            }
+        Objective goal = objective == null ? Objective.COUNT : objective;
+        return byCategoryFlight.executeAsync(CacheConfig.requestKey(itemIds, goal, window),
+                () -> selectByCategoryAsync(prune(itemIds, window), goal, window));
+    }
+
+    /**
+     * Answers several named ID sets at once. Each set reads and populates the {@code "discounts"} cache
+     * under the same key as {@link #findMaxNonOverlappingItemsAsync(List, Objective, TimeWindow)} without a
+     * window; the IDs of all
+     * uncached sets are deduplicated into one metadata fetch.
+     *
+     * @param sets      set name → raw item IDs ({@code null} or empty yields an empty result)
+     * @param objective what to maximise ({@code null} = {@link Objective#COUNT})
+     * @return set name → selected IDs, in the order the sets were given
+     */
+    public CompletableFuture<Map<String, List<String>>> findMaxNonOverlappingItemsBatchAsync(
+            Map<String, List<String>> sets, Objective objective) {
+
+        if (sets == null || sets.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
         }
-        return List.copyOf(selectedIds);
+
+        Objective goal = objective == null ? Objective.COUNT : objective;
+        Map<String, List<String>> cached = new HashMap<>();
+        Map<String, String>       misses = new LinkedHashMap<>();   // set name → cache key
+        Set<String>               union  = new LinkedHashSet<>();
+
+        sets.forEach((name, ids) -> {
+            if (ids == null || ids.isEmpty()) {
+                cached.put(name, List.of());
+                return;
+            }
+            String key = CacheConfig.requestKey(ids, goal);
+            @SuppressWarnings("unchecked")
+            List<String> hit = discountsCache.get(key, List.class);
+            if (hit != null) {
+                cached.put(name, hit);
+            } else {
+                misses.put(name, key);
+                union.addAll(ids);
+            }
+        });
+
+        CompletableFuture<List<ItemMetadata>> metadata = union.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : itemsClient.fetchItemMetadataAsync(List.copyOf(union));
+
+        return metadata.thenApply(items -> {
+            Map<String, ItemMetadata> itemMap = items.stream()
+                    .collect(Collectors.toMap(ItemMetadata::id, it -> it));
+
+            Map<String, List<String>> results = new LinkedHashMap<>();
+            sets.forEach((name, ids) -> {
+                String key = misses.get(name);
+                if (key == null) {
+                    results.put(name, cached.get(name));
+                    return;
+                }
+                List<ItemMetadata> setItems = ids.stream()
+                        .distinct()
+                        .map(itemMap::get)
+                        .filter(Objects::nonNull)
+                        .toList();
+                List<String> selected = selectNonOverlapping(setItems, goal, null);
+                discountsCache.put(key, selected);
+                results.put(name, selected);
+            });
+            return Collections.unmodifiableMap(results);
+        });
     }
 
     /**
-     * For each root category, returns the maximum subset of items whose active periods do not overlap.
+     * Maximum‑count non‑overlapping selection for ID sets too large to hold as metadata lists: IDs are
+     * consumed lazily, their metadata fetched a chunk at a time, and the scheduling done out of core within
+     * the configured memory budget. Blocking and uncached; meant for offline jobs.
      *
-     * @param itemIds raw item IDs (an empty or {@code null} collection yields an empty result)
-     * @return a list of {@link CategoryGroupDTO} as required by the public contract, never {@code null}
+     * <p>The selection is handed to {@code selected} as the final merge produces it, never collected, so the
+     * output does not count against the budget either.</p>
+     *
+     * @param itemIds  raw item IDs, each expected once; consumed once
+     * @param selected receives the selected IDs, in order of end
+     * @return how many IDs were selected
+     * @throws UncheckedIOException if the temp files cannot be written or read
      */
-    @Cacheable(value = "discountsByCategory", keyGenerator = "sortedIdsKeyGenerator")
-    public List<CategoryGroupDTO> findMaxNonOverlappingItemsByCategory(List<String> itemIds) {
-        if (itemIds == null || itemIds.isEmpty()) {
-            return List.of();
+    public long findMaxNonOverlappingItemsOutOfCore(Iterator<String> itemIds, Consumer<String> selected) {
+        Objects.requireNonNull(selected, "selected must not be null");
+        try (ExternalIntervalScheduler scheduler = new ExternalIntervalScheduler(outOfCoreBudget, outOfCoreTempDir,
+                engines::select)) {
+            List<String> chunk = new ArrayList<>(outOfCoreFetchChunk);
+            while (itemIds.hasNext()) {
+                chunk.add(itemIds.next());
+                if (chunk.size() == outOfCoreFetchChunk || !itemIds.hasNext()) {
+                    for (ItemMetadata item : itemsClient.fetchItemMetadataUncached(List.copyOf(chunk))) {
+                        scheduler.add(item.id(), item.start(), item.end());
+                    }
+                    chunk.clear();
+                }
+            }
+            long count = scheduler.select(selected);
+            outOfCoreRuns.add(scheduler.spilledRuns());
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Out-of-core scheduling failed", e);
         }
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
 
-        /* 1) Group IDs by root category. */
-        List<CategoryGroupDTO> rawGroups = itemsClient.groupByRootCategory(itemIds);
+    /*
+     * With a usable category tree, metadata alone is enough (possibly served entirely from cache). Only the
+     * request that first meets a category missing from the snapshot asks upstream after its metadata; the
+     * miss leaves the tree unusable until it is refreshed, so the requests that follow take the path below.
+     * There grouping and metadata both depend only on the input IDs, so the two upstream calls are issued
+     * together and joined once both complete: one round trip instead of two.
+     */
+    private CompletableFuture<List<CategoryGroupDTO>> selectByCategoryAsync(List<String> itemIds,
+                                                                            Objective objective,
+                                                                            TimeWindow window) {
+        if (itemIds.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (categoryTree.isUsable()) {
+            return itemsClient.fetchItemMetadataAsync(itemIds).thenCompose(items -> categoryTree.group(items)
+                    .map(groups -> CompletableFuture.completedFuture(selectPerCategory(groups, items, objective, window)))
+                    .orElseGet(() -> itemsClient.groupByRootCategoryAsync(itemIds)
+                            .thenApply(groups -> selectPerCategory(groups, items, objective, window))));
+        }
+
+        CompletableFuture<List<CategoryGroupDTO>> groups   = itemsClient.groupByRootCategoryAsync(itemIds);
+        CompletableFuture<List<ItemMetadata>>     metadata = itemsClient.fetchItemMetadataAsync(itemIds);
+
+        return groups.thenCombine(metadata, (g, items) -> selectPerCategory(g, items, objective, window));
+    }
+
+    /* Sin ir upstream: descarta los IDs cuya metadata cacheada ya muestra que caen fuera de la ventana. */
+    private List<String> prune(List<String> itemIds, TimeWindow window) {
+        return window == null ? itemIds : itemsClient.excludeCached(itemIds, item -> !window.intersects(item));
+    }
+
+    private List<CategoryGroupDTO> selectPerCategory(List<CategoryGroupDTO> rawGroups,
+                                                     List<ItemMetadata> items,
+                                                     Objective objective,
+                                                     TimeWindow window) {
         if (rawGroups.isEmpty()) {
             return List.of();
         }
 
-        /* 2) Batch‑fetch metadata for all involved IDs. */
-        List<String> allIds = rawGroups.stream()
-                .flatMap(g -> g.itemIds().stream())
-                .distinct()
+        Map<String, ItemMetadata> itemMap = items.stream()
+                .collect(Collectors.toMap(ItemMetadata::id, it -> it));
+
+        List<List<ItemMetadata>> groupItems = rawGroups.stream()
+                .map(group -> group.itemIds().stream()
+                        .map(itemMap::get)
+                        .filter(Objects::nonNull)
+                        .toList())
                 .toList();
 
-        Map<String, ItemDTO> itemMap = itemsClient.fetchItemsByIds(allIds).stream()
-                .collect(Collectors.toMap(ItemDTO::getId, it -> it));
+        /* Una tarea por categoría; toList() conserva el orden de los grupos aunque el stream sea paralelo. */
+        IntStream indices = IntStream.range(0, rawGroups.size());
+        if (engines.parallelCategories(rawGroups.size(), items.size())) {
+            indices = indices.parallel();
+        }
+        List<List<String>> selections = indices
+                .mapToObj(i -> selectNonOverlapping(groupItems.get(i), objective, window))
+                .toList();
 
-        /* 3) Apply the greedy algorithm per category. */
         List<CategoryGroupDTO> result = new ArrayList<>();
+        for (int i = 0; i < rawGroups.size(); i++) {
+            List<String> selected = selections.get(i);
+            if (!selected.isEmpty()) {
+                result.add(new CategoryGroupDTO(rawGroups.get(i).rootCategoryId(), selected));
+            }
+        }
+        return List.copyOf(result);
+    }
 
-        for (CategoryGroupDTO group : rawGroups) {
-            var intervals = group.itemIds().stream()
-                    .map(itemMap::get)
-                    .filter(Objects::nonNull)
-                    .map(ItemInterval::of)
-                    .sorted(Comparator.comparing(ItemInterval::end))
-                    .toList();
-
-            List<String> selected = new ArrayList<>();
-            OffsetDateTime lastEnd = null;
-
-            for (ItemInterval interval : intervals) {
-                if (lastEnd == null || !lastEnd.isAfter(interval.start())) {
-                    selected.add(interval.itemId());
-                    lastEnd = interval.end();
-                }
+    /**
+     * Interval scheduling on primitive arrays: greedy for {@link Objective#COUNT}
+     * ({@link IntervalScheduler}), DP for {@link Objective#PRICE} ({@link WeightedIntervalScheduler}), on
+     * the engine the selector picks. IDs are resolved only for the winners.
+     */
+    private List<String> selectNonOverlapping(List<ItemMetadata> items, Objective objective, TimeWindow window) {
+        Intervals intervals = Intervals.of(items, window);
+        int n = intervals.items().size();
+        if (n == 0) {
+            return List.of();
+        }
+
+        SchedulingEngine engine = engines.select(intervals.end());
+        int[] selected;
+        if (objective == Objective.PRICE) {
+            double[] price = new double[n];
+            for (int i = 0; i < n; i++) {
+                price[i] = intervals.items().get(i).price();
             }
+            selected = engine.selectMaxWeight(intervals.start(), intervals.end(), price);
+        } else {
+            selected = engine.selectNonOverlapping(intervals.start(), intervals.end());
+        }
 
-            if (!selected.isEmpty()) {
-                result.add(new CategoryGroupDTO(group.rootCategoryId(), List.copyOf(selected)));
+        String[] selectedIds = new String[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            selectedIds[i] = intervals.items().get(selected[i]).id();
+        }
+        return List.of(selectedIds);
+    }
+
+    private TrackScheduleDTO selectOnTracks(List<ItemMetadata> items, int tracks, TimeWindow window) {
+        Intervals intervals = Intervals.of(items, window);
+        items = intervals.items();
+
+        MultiTrackScheduler.Assignment assignment = engines.select(intervals.end())
+                .selectOnTracks(intervals.start(), intervals.end(), tracks);
+        int[] selected = assignment.selected();
+
+        List<String> selectedIds = new ArrayList<>(selected.length);
+        List<List<String>> byTrack = new ArrayList<>();
+        for (int i = 0; i < selected.length; i++) {
+            String id = items.get(selected[i]).id();
+            int track = assignment.track()[i];
+            while (byTrack.size() <= track) {
+                byTrack.add(new ArrayList<>());
             }
+            selectedIds.add(id);
+            byTrack.get(track).add(id);
         }
-        return List.copyOf(result);
+        return new TrackScheduleDTO(List.copyOf(selectedIds), byTrack.stream().map(List::copyOf).toList());
     }
 
-    /* ───────────────────────────────────────────────────────────────────────────── */
+    /** Items as primitive start/end arrays, clipped to the window; items outside it are dropped before sorting. */
+    private record Intervals(List<ItemMetadata> items, long[] start, long[] end) {
 
-    private record ItemInterval(String itemId, OffsetDateTime start, OffsetDateTime end) {
-        static ItemInterval of(ItemDTO dto) {
-            Objects.requireNonNull(dto.getDateCreated(), () -> "dateCreated is null for " + dto.getId());
-            Objects.requireNonNull(dto.getLastUpdated(), () -> "lastUpdated is null for " + dto.getId());
-            return new ItemInterval(dto.getId(), dto.getDateCreated(), dto.getLastUpdated());
+        static Intervals of(List<ItemMetadata> items, TimeWindow window) {
+            int n = items.size();
+            List<ItemMetadata> kept = window == null ? items : new ArrayList<>(n);
+            long[] start = new long[n];
+            long[] end   = new long[n];
+            int k = 0;
+            for (ItemMetadata item : items) {
+                if (window == null) {
+                    start[k] = item.start();
+                    end[k]   = item.end();
+                } else if (window.intersects(item)) {
+                    kept.add(item);
+                    start[k] = window.clipStart(item.start());
+                    end[k]   = window.clipEnd(item.end());
+                } else {
+                    continue;
+                }
+                k++;
+            }
+            return k == n
+                    ? new Intervals(kept, start, end)
+                    : new Intervals(kept, Arrays.copyOf(start, k), Arrays.copyOf(end, k));
         }
     }
+
+    private static void registerFlightMetrics(MeterRegistry registry, String flight, SingleFlight<?, ?> sf) {
+        FunctionCounter.builder("melidiscount.singleflight.calls", sf, SingleFlight::leaderCount)
+                .description("Computations executed by the caller that started the flight")
+                .tags("flight", flight, "role", "leader")
+                .register(registry);
+        FunctionCounter.builder("melidiscount.singleflight.calls", sf, SingleFlight::joinedCount)
+                .description("Callers that joined an in‑flight computation instead of starting their own")
+                .tags("flight", flight, "role", "joined")
+                .register(registry);
+    }
 }
@@ -0,0 +1,149 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import com.github.jaguzmanb1.melidiscount.resource.ItemsResourceClient;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.IncrementalSchedule;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.IncrementalSchedule.Interval;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server‑side scheduling sessions for editors that tweak a campaign a few items at a time.
+ *
+ * <p>A session keeps an {@link IncrementalSchedule} of its items, so add/remove deltas only fetch
+ * metadata for the added IDs (through the per‑item cache of {@link ItemsResourceClient}) and repair the
+ * selection locally instead of re‑fetching and re‑sorting the whole list.</p>
+ *
+ * <p>Memory is bounded: at most {@code discount.sessions.max-sessions} sessions of at most
+ * {@code discount.sessions.max-items} items each, and sessions idle for
+ * {@code discount.sessions.idle-timeout} are dropped. Sessions always maximise the item count.</p>
+ */
+@Service
+public class DiscountSessionService {
+
+    /** Current state of a session: its ID, item count and selected item IDs (in order of end). */
+    public record SessionView(String sessionId, int size, List<String> itemIds) {}
+
+    private final ItemsResourceClient itemsClient;
+    private final Cache<String, IncrementalSchedule> sessions;
+    private final int maxItems;
+
+    private final LongAdder repairSteps = new LongAdder();
+
+    public DiscountSessionService(
+            @NonNull ItemsResourceClient itemsClient,
+            @NonNull MeterRegistry meterRegistry,
+            @Value("${discount.sessions.max-sessions:1000}") long maxSessions,
+            @Value("${discount.sessions.max-items:50000}") int maxItems,
+            @Value("${discount.sessions.idle-timeout:30m}") Duration idleTimeout) {
+
+        this.itemsClient = Objects.requireNonNull(itemsClient, "itemsClient must not be null");
+        this.maxItems    = maxItems;
+        this.sessions    = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfterAccess(idleTimeout)
+                .build();
+
+        Gauge.builder("melidiscount.sessions.active", sessions, Cache::estimatedSize)
+                .description("Open scheduling sessions")
+                .register(meterRegistry);
+        FunctionCounter.builder("melidiscount.sessions.repair.steps", repairSteps, LongAdder::sum)
+                .description("Intervals revisited by incremental session updates")
+                .register(meterRegistry);
+    }
+
+    /** Opens a session with {@code itemIds} and returns its first selection. */
+    public CompletableFuture<SessionView> create(List<String> itemIds) {
+        List<String> ids = itemIds == null ? List.of() : itemIds;
+        checkSize(ids.stream().distinct().count());
+
+        return itemsClient.fetchItemMetadataAsync(ids).thenApply(items -> {
+            IncrementalSchedule schedule = new IncrementalSchedule();
+            String sessionId = UUID.randomUUID().toString();
+            SessionView view = apply(sessionId, schedule, List.of(), items);
+            sessions.put(sessionId, schedule);
+            return view;
+        });
+    }
+
+    /** Applies a delta to an open session; only the added IDs are looked up. */
+    public CompletableFuture<SessionView> update(String sessionId, List<String> add, List<String> remove) {
+        IncrementalSchedule schedule = find(sessionId);
+        List<String> added   = add == null ? List.of() : add;
+        List<String> removed = remove == null ? List.of() : remove;
+
+        return itemsClient.fetchItemMetadataAsync(added)
+                .thenApply(items -> apply(sessionId, schedule, removed, items));
+    }
+
+    public SessionView get(String sessionId) {
+        IncrementalSchedule schedule = find(sessionId);
+        synchronized (schedule) {
+            return new SessionView(sessionId, schedule.size(), schedule.selectedIds());
+        }
+    }
+
+    public void delete(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private SessionView apply(String sessionId, IncrementalSchedule schedule,
+                              List<String> remove, List<ItemMetadata> add) {
+        List<Interval> put = add.stream()
+                .map(item -> new Interval(item.id(), item.start(), item.end()))
+                .toList();
+
+        synchronized (schedule) {
+            checkSize(schedule.sizeAfter(remove, put));
+            long before = schedule.repairSteps();
+            schedule.update(remove, put);
+            repairSteps.add(schedule.repairSteps() - before);
+            return new SessionView(sessionId, schedule.size(), schedule.selectedIds());
+        }
+    }
+
+    private IncrementalSchedule find(String sessionId) {
+        IncrementalSchedule schedule = sessionId == null ? null : sessions.getIfPresent(sessionId);
+        if (schedule == null) {
+            throw new SessionNotFoundException(sessionId);
+        }
+        return schedule;
+    }
+
+    private void checkSize(long size) {
+        if (size > maxItems) {
+            throw new SessionTooLargeException(maxItems);
+        }
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public static class SessionNotFoundException extends RuntimeException {
+        public SessionNotFoundException(String sessionId) {
+            super("Unknown or expired session " + sessionId);
+        }
+    }
+
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public static class SessionTooLargeException extends RuntimeException {
+        public SessionTooLargeException(int maxItems) {
+            super("A session can hold at most " + maxItems + " items");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+/**
+ * What the selection of non‑overlapping items maximises ({@code objective} request parameter).
+ */
+public enum Objective {
+
+    /** Number of items (interval‑scheduling greedy). */
+    COUNT,
+
+    /** Total {@code price} of the selected items (weighted interval scheduling). */
+    PRICE
+}
@@ -0,0 +1,117 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+import com.github.jaguzmanb1.melidiscount.service.scheduling.IntervalScheduler;
+import com.github.jaguzmanb1.melidiscount.service.scheduling.SchedulingEngine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Picks the {@link SchedulingEngine} for each scheduling call from the input size, whether the input is
+ * already in end order and the cores available, and decides when per‑category scheduling goes parallel.
+ *
+ * <p>Rules, in order (defaults from {@code SortBenchmark}):</p>
+ * <ol>
+ *   <li>up to {@code discount.engine.inline-max-size} intervals: {@link SchedulingEngine#INLINE};</li>
+ *   <li>ends already non‑decreasing: {@link SchedulingEngine#PRESORTED} (radix is the worst choice
+ *       there, packed sorts still pay for the key array);</li>
+ *   <li>from {@code discount.engine.parallel-min-size} intervals with more than one core:
+ *       {@link SchedulingEngine#PARALLEL};</li>
+ *   <li>from {@code discount.engine.radix-min-size} intervals: {@link SchedulingEngine#RADIX}
+ *       (crossover with packed at ~1‑2k intervals);</li>
+ *   <li>otherwise {@link SchedulingEngine#PACKED}.</li>
+ * </ol>
+ *
+ * <p>{@code discount.engine.force} pins one engine for every call (for comparing them on a deployment).
+ * {@code discount.engine.cores} overrides the processor count ({@code 0} = what the JVM reports).
+ * Thresholds are exported as {@code melidiscount.engine.threshold{name}} and each choice is counted in
+ * {@code melidiscount.engine.selections{engine}}.</p>
+ */
+@Component
+public class SchedulingEngineSelector {
+
+    private final int inlineMaxSize;
+    private final int radixMinSize;
+    private final int parallelMinSize;
+    private final int byCategoryParallelMinSize;
+    private final int cores;
+    private final SchedulingEngine forced;   // null = elegir por entrada
+
+    private final Map<SchedulingEngine, LongAdder> selections = new EnumMap<>(SchedulingEngine.class);
+
+    public SchedulingEngineSelector(
+            @NonNull MeterRegistry meterRegistry,
+            @Value("${discount.engine.inline-max-size:32}") int inlineMaxSize,
+            @Value("${discount.engine.radix-min-size:2048}") int radixMinSize,
+            @Value("${discount.engine.parallel-min-size:1048576}") int parallelMinSize,
+            @Value("${discount.by-category.parallel-threshold:10000}") int byCategoryParallelMinSize,
+            @Value("${discount.engine.cores:0}") int cores,
+            @Value("${discount.engine.force:}") String force) {
+
+        this.inlineMaxSize             = inlineMaxSize;
+        this.radixMinSize              = radixMinSize;
+        this.parallelMinSize           = parallelMinSize;
+        this.byCategoryParallelMinSize = byCategoryParallelMinSize;
+        this.cores  = cores > 0 ? cores : Runtime.getRuntime().availableProcessors();
+        this.forced = force == null || force.isBlank()
+                ? null
+                : SchedulingEngine.valueOf(force.trim().toUpperCase(Locale.ROOT));
+
+        Objects.requireNonNull(meterRegistry, "meterRegistry must not be null");
+        for (SchedulingEngine engine : SchedulingEngine.values()) {
+            LongAdder count = new LongAdder();
+            selections.put(engine, count);
+            FunctionCounter.builder("melidiscount.engine.selections", count, LongAdder::sum)
+                    .description("Scheduling calls per engine")
+                    .tag("engine", engine.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        registerThreshold(meterRegistry, "inline-max-size", inlineMaxSize);
+        registerThreshold(meterRegistry, "radix-min-size", radixMinSize);
+        registerThreshold(meterRegistry, "parallel-min-size", parallelMinSize);
+        registerThreshold(meterRegistry, "by-category-parallel-min-size", byCategoryParallelMinSize);
+        registerThreshold(meterRegistry, "cores", this.cores);
+    }
+
+    /** The engine for a call over intervals with these end times. */
+    public SchedulingEngine select(long[] end) {
+        SchedulingEngine engine = forced != null ? forced : choose(end);
+        selections.get(engine).increment();
+        return engine;
+    }
+
+    /** Whether {@code groups} categories totalling {@code items} items should be scheduled in parallel. */
+    public boolean parallelCategories(int groups, int items) {
+        return groups > 1 && cores > 1 && items >= byCategoryParallelMinSize;
+    }
+
+    private SchedulingEngine choose(long[] end) {
+        int n = end.length;
+        if (n <= inlineMaxSize) {
+            return SchedulingEngine.INLINE;
+        }
+        if (IntervalScheduler.isSortedByEnd(end)) {
+            return SchedulingEngine.PRESORTED;
+        }
+        if (n >= parallelMinSize && cores > 1) {
+            return SchedulingEngine.PARALLEL;
+        }
+        return n >= radixMinSize ? SchedulingEngine.RADIX : SchedulingEngine.PACKED;
+    }
+
+    private static void registerThreshold(MeterRegistry registry, String name, int value) {
+        Gauge.builder("melidiscount.engine.threshold", () -> value)
+                .description("Configured scheduling engine threshold")
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations that share the same key: the first caller (the <em>leader</em>)
+ * runs the work, every caller arriving while it is still running joins the pending result instead of
+ * starting its own.
+ *
+ * <p>Nothing is memoised once the flight lands; caching stays the job of the Spring cache layer.</p>
+ *
+ * @param <K> canonical key type
+ * @param <V> result type
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder joined  = new LongAdder();
+
+    /**
+     * Starts {@code work} for {@code key}, or joins the flight already running for it. Joined callers get a
+     * copy of the leader's future, so cancelling one caller's future does not affect the others; a failure
+     * of the leader reaches every joined caller.
+     */
+    CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> work) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            joined.increment();
+            return existing.copy();
+        }
+
+        leaders.increment();
+        CompletableFuture<V> started;
+        try {
+            started = work.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        started.whenComplete((value, ex) -> {
+            inFlight.remove(key, mine);
+            if (ex != null) {
+                mine.completeExceptionally(ex);
+            } else {
+                mine.complete(value);
+            }
+        });
+        return mine.copy();
+    }
+
+    /** Number of calls that executed the work themselves. */
+    long leaderCount() {
+        return leaders.sum();
+    }
+
+    /** Number of calls that joined a flight already in progress. */
+    long joinedCount() {
+        return joined.sum();
+    }
+}
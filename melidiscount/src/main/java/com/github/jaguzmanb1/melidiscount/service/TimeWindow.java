@@ -0,0 +1,49 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Planning window ({@code from}/{@code to} request parameters) in epoch microseconds.
+ *
+ * <p>Items are clipped to the window; those not active for some positive time inside it are pruned
+ * before sorting (and, when the cached metadata already shows it, before being fetched).</p>
+ */
+public record TimeWindow(long from, long to) {
+
+    public TimeWindow {
+        if (from >= to) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    /**
+     * @return the window, or {@code null} when both bounds are absent (no window)
+     */
+    public static TimeWindow of(OffsetDateTime from, OffsetDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return new TimeWindow(
+                from == null ? Long.MIN_VALUE : ItemMetadata.toEpochMicros(from),
+                to   == null ? Long.MAX_VALUE : ItemMetadata.toEpochMicros(to));
+    }
+
+    /** Whether {@code [start, end]} overlaps the window for a positive amount of time. */
+    public boolean intersects(long start, long end) {
+        return clipStart(start) < clipEnd(end);
+    }
+
+    public boolean intersects(ItemMetadata item) {
+        return intersects(item.start(), item.end());
+    }
+
+    public long clipStart(long start) {
+        return Math.max(start, from);
+    }
+
+    public long clipEnd(long end) {
+        return Math.min(end, to);
+    }
+}
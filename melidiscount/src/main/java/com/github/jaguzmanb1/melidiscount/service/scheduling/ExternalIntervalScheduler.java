@@ -0,0 +1,322 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Out‑of‑core variant of {@link IntervalScheduler#selectNonOverlapping(long[], long[])} for inputs that
+ * should not be held in memory at once.
+ *
+ * <p>Intervals are {@link #add added} one by one into a buffer; whenever the buffer reaches half of the
+ * memory budget it is sorted (same order as the in‑memory engine) and spilled to a temp file as a run of
+ * {@code (end, start, id)} records. {@link #select(Consumer)} then k‑way merges the runs with a
+ * {@link PriorityQueue} and applies the greedy in the same single streaming pass. When there are more runs
+ * than the budget allows open readers for, consecutive runs are first merged into longer ones. Ties across
+ * runs are broken by run order, so the selection is exactly the in‑memory one.</p>
+ *
+ * <p>Every sort (each spilled run, or the whole input when it never spills) uses the
+ * {@link SchedulingEngine} the {@code engines} function picks for its end times.</p>
+ *
+ * <p>Each ID should be added once; a repeated ID is never selected twice. Single use and not
+ * thread‑safe; {@link #close()} deletes the temp files.</p>
+ */
+public final class ExternalIntervalScheduler implements Closeable {
+
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+    private static final int RECORD_OVERHEAD_BYTES = 96;   // 2 longs + String + char[] + claves de sort, aprox.
+
+    private final Path tempDir;
+    private final long runBudgetBytes;
+    private final int  maxFanIn;
+    private final Function<long[], SchedulingEngine> engines;
+
+    private long[]   start = new long[1024];
+    private long[]   end   = new long[1024];
+    private String[] ids   = new String[1024];
+    private int      size;
+    private long     bufferedBytes;
+
+    private final List<Path> runs  = new ArrayList<>();   // corridas vigentes, en orden
+    private final List<Path> files = new ArrayList<>();   // todo lo creado, para close()
+    private long spilledRuns;
+    private boolean consumed;
+
+    /** Sorts with {@link SchedulingEngine#PACKED}. */
+    public ExternalIntervalScheduler(long memoryBudgetBytes, Path tempDir) {
+        this(memoryBudgetBytes, tempDir, end -> SchedulingEngine.PACKED);
+    }
+
+    /**
+     * @param memoryBudgetBytes bound for the buffer plus the merge readers, at least 1 MB
+     * @param tempDir           directory for the runs ({@code null} = the JVM temp directory)
+     * @param engines           engine for each sort, given the end times to sort
+     */
+    public ExternalIntervalScheduler(long memoryBudgetBytes, Path tempDir,
+                                     Function<long[], SchedulingEngine> engines) {
+        if (memoryBudgetBytes < (1 << 20)) {
+            throw new IllegalArgumentException("memory budget must be at least 1 MB");
+        }
+        this.tempDir        = tempDir;
+        this.runBudgetBytes = memoryBudgetBytes / 2;
+        this.maxFanIn       = (int) Math.max(2, Math.min(1024, memoryBudgetBytes / 2 / IO_BUFFER_BYTES));
+        this.engines        = Objects.requireNonNull(engines, "engines must not be null");
+    }
+
+    public void add(String id, long start, long end) throws IOException {
+        if (consumed) {
+            throw new IllegalStateException("select() was already called");
+        }
+        if (size == ids.length) {
+            int capacity = size + (size >> 1);
+            this.start = Arrays.copyOf(this.start, capacity);
+            this.end   = Arrays.copyOf(this.end, capacity);
+            this.ids   = Arrays.copyOf(this.ids, capacity);
+        }
+        this.start[size] = start;
+        this.end[size]   = end;
+        this.ids[size]   = id;
+        size++;
+        bufferedBytes += RECORD_OVERHEAD_BYTES + 2L * id.length();
+
+        if (bufferedBytes >= runBudgetBytes) {
+            spill();
+        }
+    }
+
+    /**
+     * Streams the selected IDs, in order of end, to {@code selected}.
+     *
+     * @return the number of selected intervals
+     */
+    public long select(Consumer<String> selected) throws IOException {
+        if (consumed) {
+            throw new IllegalStateException("select() was already called");
+        }
+        consumed = true;
+
+        if (runs.isEmpty()) {
+            /* Todo entró en memoria: no hace falta tocar disco. */
+            long[] e = Arrays.copyOf(end, size);
+            int[] chosen = IntervalScheduler.selectNonOverlapping(Arrays.copyOf(start, size), e, engines.apply(e));
+            Greedy greedy = new Greedy(selected);
+            for (int idx : chosen) {
+                greedy.offer(ids[idx], start[idx], end[idx]);
+            }
+            release();
+            return greedy.count;
+        }
+
+        spill();
+        release();
+        while (runs.size() > maxFanIn) {
+            mergePass();
+        }
+
+        Greedy greedy = new Greedy(selected);
+        merge(runs, greedy::offer);
+        return greedy.count;
+    }
+
+    /** Runs written to disk so far (before any intermediate merge). */
+    public long spilledRuns() {
+        return spilledRuns;
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+        IOException failure = null;
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        files.clear();
+        runs.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private void spill() throws IOException {
+        if (size == 0) {
+            return;
+        }
+        long[] s = Arrays.copyOf(start, size);
+        long[] e = Arrays.copyOf(end, size);
+        int[] order = IntervalScheduler.sortByEnd(s, e, engines.apply(e));
+
+        Path run = newRunFile();
+        runs.add(run);
+        try (DataOutputStream out = writer(run)) {
+            for (int idx : order) {
+                writeRecord(out, e[idx], s[idx], ids[idx]);
+            }
+        }
+        spilledRuns++;
+
+        Arrays.fill(ids, 0, size, null);
+        size = 0;
+        bufferedBytes = 0;
+    }
+
+    private void release() {
+        start = new long[0];
+        end   = new long[0];
+        ids   = new String[0];
+        size  = 0;
+    }
+
+    /* Une grupos consecutivos de maxFanIn corridas: el orden entre corridas se conserva para los empates. */
+    private void mergePass() throws IOException {
+        List<Path> merged = new ArrayList<>();
+        for (int from = 0; from < runs.size(); from += maxFanIn) {
+            List<Path> group = runs.subList(from, Math.min(from + maxFanIn, runs.size()));
+            Path run = newRunFile();
+            merged.add(run);
+            try (DataOutputStream out = writer(run)) {
+                merge(group, (id, s, e) -> writeRecord(out, e, s, id));
+            }
+            for (Path p : group) {
+                Files.deleteIfExists(p);
+            }
+        }
+        runs.clear();
+        runs.addAll(merged);
+    }
+
+    private void merge(List<Path> group, RecordSink sink) throws IOException {
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(group.size());
+        try {
+            for (int i = 0; i < group.size(); i++) {
+                RunReader reader = new RunReader(group.get(i), i);
+                if (reader.advance()) {
+                    heads.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            while (!heads.isEmpty()) {
+                RunReader head = heads.poll();
+                sink.accept(head.id, head.start, head.end);
+                if (head.advance()) {
+                    heads.add(head);
+                } else {
+                    head.close();
+                }
+            }
+        } finally {
+            for (RunReader reader : heads) {
+                reader.close();
+            }
+        }
+    }
+
+    private Path newRunFile() throws IOException {
+        Path run = tempDir == null
+                ? Files.createTempFile("discount-run-", ".bin")
+                : Files.createTempFile(tempDir, "discount-run-", ".bin");
+        files.add(run);
+        return run;
+    }
+
+    private static DataOutputStream writer(Path run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER_BYTES));
+    }
+
+    private static void writeRecord(DataOutputStream out, long end, long start, String id) throws IOException {
+        out.writeLong(end);
+        out.writeLong(start);
+        out.writeUTF(id);
+    }
+
+    @FunctionalInterface
+    private interface RecordSink {
+        void accept(String id, long start, long end) throws IOException;
+    }
+
+    /* Greedy en streaming; recibe los intervalos ya en orden (end, longitud cero al final, corrida). */
+    private static final class Greedy {
+        private final Consumer<String> selected;
+        private final Set<String> selectedAtLastEnd = new HashSet<>();   // sólo para IDs repetidos
+        private long lastEnd = Long.MIN_VALUE;
+        private long count;
+
+        Greedy(Consumer<String> selected) {
+            this.selected = selected;
+        }
+
+        void offer(String id, long start, long end) {
+            if (lastEnd > start) {
+                return;
+            }
+            if (end != lastEnd) {
+                selectedAtLastEnd.clear();
+            }
+            if (!selectedAtLastEnd.add(id)) {
+                return;   // mismo ID de longitud cero en el mismo instante
+            }
+            lastEnd = end;
+            count++;
+            selected.accept(id);
+        }
+    }
+
+    private static final class RunReader implements Comparable<RunReader>, Closeable {
+        private final DataInputStream in;
+        private final int run;
+        String id;
+        long start;
+        long end;
+
+        RunReader(Path file, int run) throws IOException {
+            this.in  = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_BYTES));
+            this.run = run;
+        }
+
+        boolean advance() throws IOException {
+            try {
+                end = in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            start = in.readLong();
+            id    = in.readUTF();
+            return true;
+        }
+
+        @Override
+        public int compareTo(RunReader o) {
+            int c = Long.compare(end, o.end);
+            if (c == 0) {
+                c = Boolean.compare(start >= end, o.start >= o.end);   // longitud cero al final
+            }
+            return c != 0 ? c : Integer.compare(run, o.run);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Interval set that keeps its maximum non‑overlapping selection up to date under add/remove deltas.
+ *
+ * <p>Intervals live in a {@link TreeSet} in the same order as {@link IntervalScheduler} (end, zero‑length
+ * last, then insertion). The greedy outcome before the first changed position cannot change, so an
+ * update replays the greedy only from there, starting at the end of the last selected interval before it,
+ * and stops as soon as, past the last changed position, it selects an interval that was already
+ * selected: from that point on the greedy state is the same as before. Cost is O(d log n) plus the
+ * intervals walked until the selections converge again, instead of a full re‑sort.</p>
+ *
+ * <p>Not thread‑safe.</p>
+ */
+public final class IncrementalSchedule {
+
+    /** An item's active period, in epoch microseconds. */
+    public record Interval(String id, long start, long end) {}
+
+    private static final class Node {
+        final String id;
+        final long start;
+        final long end;
+        final long seq;
+        boolean selected;
+
+        Node(String id, long start, long end, long seq) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.seq = seq;
+        }
+    }
+
+    private static final Comparator<Node> ORDER = Comparator.<Node>comparingLong(n -> n.end)
+            .thenComparingInt(n -> n.start < n.end ? 0 : 1)
+            .thenComparingLong(n -> n.seq);
+
+    private final NavigableSet<Node> all      = new TreeSet<>(ORDER);
+    private final NavigableSet<Node> selected = new TreeSet<>(ORDER);
+    private final Map<String, Node>  byId     = new HashMap<>();
+    private long nextSeq;
+    private long repairSteps;
+
+    /**
+     * Removes {@code remove} and adds (or replaces, by id) {@code put}, then repairs the selection.
+     * Unknown IDs in {@code remove} are ignored.
+     */
+    public void update(Collection<String> remove, Collection<Interval> put) {
+        Node from  = null;   // primera y última posición modificada
+        Node until = null;
+
+        for (String id : remove) {
+            Node old = detach(id);
+            if (old != null && old.selected) {
+                from  = earliest(from, old);
+                until = latest(until, old);
+            }
+        }
+        for (Interval interval : put) {
+            Node old = detach(interval.id());
+            if (old != null && old.selected) {
+                from  = earliest(from, old);
+                until = latest(until, old);
+            }
+            Node node = new Node(interval.id(), interval.start(), interval.end(), nextSeq++);
+            all.add(node);
+            byId.put(node.id, node);
+            from  = earliest(from, node);
+            until = latest(until, node);
+        }
+
+        if (from != null) {
+            repairFrom(from, until);
+        }
+    }
+
+    /** Selected IDs, in order of end. */
+    public List<String> selectedIds() {
+        List<String> ids = new ArrayList<>(selected.size());
+        for (Node node : selected) {
+            ids.add(node.id);
+        }
+        return ids;
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * Size the set would have after {@link #update(Collection, Collection) update(remove, put)}, without
+     * applying it: unknown IDs in {@code remove} do not count, and a {@code put} only grows the set when
+     * its ID is new or is removed by the same update.
+     */
+    public int sizeAfter(Collection<String> remove, Collection<Interval> put) {
+        Set<String> removed = new HashSet<>();
+        for (String id : remove) {
+            if (byId.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+        Set<String> added = new HashSet<>();
+        for (Interval interval : put) {
+            if (!byId.containsKey(interval.id()) || removed.contains(interval.id())) {
+                added.add(interval.id());
+            }
+        }
+        return all.size() - removed.size() + added.size();
+    }
+
+    /** Intervals visited by repairs so far (for monitoring how local the updates are). */
+    public long repairSteps() {
+        return repairSteps;
+    }
+
+    private Node detach(String id) {
+        Node old = byId.remove(id);
+        if (old != null) {
+            all.remove(old);
+            if (old.selected) {
+                selected.remove(old);
+            }
+        }
+        return old;
+    }
+
+    /*
+     * Replays the greedy from {@code from} (which may no longer be in the set) until it converges past
+     * {@code until}, the last changed position.
+     */
+    private void repairFrom(Node from, Node until) {
+        Node previous = selected.lower(from);
+        long lastEnd = previous == null ? Long.MIN_VALUE : previous.end;
+
+        for (Node node : all.tailSet(from, true)) {
+            repairSteps++;
+            if (lastEnd <= node.start) {
+                if (node.selected && ORDER.compare(node, until) > 0) {
+                    return;   // mismo estado que la corrida anterior: el resto no cambia
+                }
+                if (node.selected) {
+                    lastEnd = node.end;
+                    continue;
+                }
+                node.selected = true;
+                selected.add(node);
+                lastEnd = node.end;
+            } else if (node.selected) {
+                node.selected = false;
+                selected.remove(node);
+            }
+        }
+    }
+
+    private static Node earliest(Node a, Node b) {
+        return a == null || ORDER.compare(b, a) < 0 ? b : a;
+    }
+
+    private static Node latest(Node a, Node b) {
+        return a == null || ORDER.compare(b, a) > 0 ? b : a;
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import java.util.Arrays;
+
+/**
+ * Interval‑scheduling engine over primitive arrays.
+ *
+ * <p>Intervals are given as parallel {@code long[]} start/end arrays (epoch microseconds) and selected
+ * by index, so callers resolve IDs only for the chosen items. Sorting works on an {@code int} index
+ * permutation: when the end range and the index fit together in 64 bits, each entry is packed as
+ * {@code (end - minEnd) << idxBits | idx} and sorted with {@link Arrays#sort(long[])} or, for the
+ * {@link SchedulingEngine#RADIX} engine, with an LSD radix sort over just the end bits (item end times
+ * span a few months, so that is a handful of passes); otherwise a stable merge sort on the indices
+ * is used. All three orders break ties on end by original index, except that zero‑length intervals go
+ * after the others ending at the same instant (they are compatible with them only in that order).</p>
+ *
+ * <p>The static entry points always use {@link SchedulingEngine#PACKED}; {@link SchedulingEngine} runs the
+ * same algorithms with a sort chosen by the caller. Choosing by input size and shape is left to the
+ * service layer ({@code SchedulingEngineSelector}), so the thresholds live in one place.</p>
+ *
+ * <p>Framework‑free and stateless.</p>
+ */
+public final class IntervalScheduler {
+
+    static final int RADIX_BITS = 11;
+
+    private IntervalScheduler() {
+    }
+
+    /**
+     * Classic greedy: sort by end and keep every interval that starts at or after the end of the last
+     * kept one. Returns a maximum‑cardinality set of pairwise non‑overlapping intervals.
+     *
+     * @param start interval starts
+     * @param end   interval ends, same length as {@code start}
+     * @return indices of the selected intervals, in order of end
+     */
+    public static int[] selectNonOverlapping(long[] start, long[] end) {
+        return selectNonOverlapping(start, end, SchedulingEngine.PACKED);
+    }
+
+    static int[] selectNonOverlapping(long[] start, long[] end, SchedulingEngine engine) {
+        int n = checkLengths(start, end);
+        if (n == 0) {
+            return new int[0];
+        }
+
+        int[] order = sortByEnd(start, end, engine);
+
+        int[] selected = new int[n];
+        int count = 0;
+        long lastEnd = Long.MIN_VALUE;
+        for (int idx : order) {
+            if (lastEnd <= start[idx]) {
+                selected[count++] = idx;
+                lastEnd = end[idx];
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Index permutation that orders {@code end} ascending, ties by index with zero‑length intervals last.
+     */
+    static int[] sortByEnd(long[] start, long[] end, SchedulingEngine engine) {
+        int[] order = sortByEndOnly(end, engine);
+        moveZeroLengthLast(order, start, end);
+        return order;
+    }
+
+    /** Whether {@code end} is already non‑decreasing (stops at the first descent). */
+    public static boolean isSortedByEnd(long[] end) {
+        for (int i = 1; i < end.length; i++) {
+            if (end[i] < end[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] sortByEndOnly(long[] end, SchedulingEngine engine) {
+        int n = end.length;
+        if (n == 0) {
+            return new int[0];
+        }
+        if (engine == SchedulingEngine.INLINE) {
+            return insertionSort(end);
+        }
+        if (engine == SchedulingEngine.PRESORTED && isSortedByEnd(end)) {
+            int[] order = new int[n];
+            Arrays.setAll(order, i -> i);
+            return order;
+        }
+
+        long min = end[0];
+        long max = end[0];
+        for (long e : end) {
+            if (e < min) {
+                min = e;
+            } else if (e > max) {
+                max = e;
+            }
+        }
+
+        int idxBits = bitLength(n - 1);
+        long range = max - min;                     // puede desbordar si el rango supera 2^63
+        boolean packable = range >= 0 && bitLength(range) + idxBits <= 64;
+
+        if (!packable) {
+            return mergeSort(end);
+        }
+        return switch (engine) {
+            case RADIX    -> radixSort(end, min, idxBits, bitLength(range));
+            case PARALLEL -> packedSort(end, min, idxBits, true);
+            default       -> packedSort(end, min, idxBits, false);
+        };
+    }
+
+    /* Inserción estable de índices: sin asignar claves, para listas de unas pocas decenas. */
+    private static int[] insertionSort(long[] end) {
+        int n = end.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = i;
+            while (j > 0 && end[order[j - 1]] > end[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+
+    /*
+     * LSD radix sort of the packed keys on the end bits only, RADIX_BITS per pass. Each pass is stable,
+     * so the index bits (already in order) never need sorting: ties stay ordered by index.
+     */
+    static int[] radixSort(long[] end, long min, int idxBits, int rangeBits) {
+        int n = end.length;
+        long idxMask = idxBits == 0 ? 0L : -1L >>> (64 - idxBits);
+        int digitMask = (1 << RADIX_BITS) - 1;
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((end[i] - min) << idxBits) | i;
+        }
+
+        long[] buffer = new long[n];
+        int[] count = new int[1 << RADIX_BITS];
+        for (int shift = idxBits; shift < idxBits + rangeBits; shift += RADIX_BITS) {
+            Arrays.fill(count, 0);
+            for (long key : keys) {
+                count[(int) (key >>> shift) & digitMask]++;
+            }
+            for (int d = 0, sum = 0; d < count.length; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (long key : keys) {
+                buffer[count[(int) (key >>> shift) & digitMask]++] = key;
+            }
+            long[] t = keys;
+            keys = buffer;
+            buffer = t;
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (keys[i] & idxMask);
+        }
+        return order;
+    }
+
+    /* Packs (end - min, idx) into one long; flipping the sign bit makes signed order == unsigned order. */
+    static int[] packedSort(long[] end, long min, int idxBits, boolean parallel) {
+        int n = end.length;
+        long idxMask = idxBits == 0 ? 0L : -1L >>> (64 - idxBits);
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (((end[i] - min) << idxBits) | i) ^ Long.MIN_VALUE;
+        }
+        if (parallel) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (keys[i] & idxMask);
+        }
+        return order;
+    }
+
+    /* Bottom‑up stable merge sort of indices by end (fallback for very wide ranges or huge inputs). */
+    private static int[] mergeSort(long[] end) {
+        int n = end.length;
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        int[] b = new int[n];
+
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi  = Math.min(lo + (width << 1), n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    b[k++] = end[a[j]] < end[a[i]] ? a[j++] : a[i++];
+                }
+                while (i < mid) {
+                    b[k++] = a[i++];
+                }
+                while (j < hi) {
+                    b[k++] = a[j++];
+                }
+            }
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /* Dentro de cada tramo de igual end, partición estable: primero start < end, después el resto. */
+    private static void moveZeroLengthLast(int[] order, long[] start, long[] end) {
+        int n = order.length;
+        int[] tail = null;
+        for (int lo = 0; lo < n; ) {
+            long e = end[order[lo]];
+            int hi = lo + 1;
+            while (hi < n && end[order[hi]] == e) {
+                hi++;
+            }
+            if (hi - lo > 1) {
+                int w = lo;
+                int t = 0;
+                for (int i = lo; i < hi; i++) {
+                    int idx = order[i];
+                    if (start[idx] < e) {
+                        order[w++] = idx;
+                    } else {
+                        if (tail == null) {
+                            tail = new int[n];
+                        }
+                        tail[t++] = idx;
+                    }
+                }
+                System.arraycopy(tail == null ? order : tail, 0, order, w, t);
+            }
+            lo = hi;
+        }
+    }
+
+    static int checkLengths(long[] start, long[] end) {
+        if (start.length != end.length) {
+            throw new IllegalArgumentException("start and end must have the same length");
+        }
+        return start.length;
+    }
+
+    static int bitLength(long v) {
+        return 64 - Long.numberOfLeadingZeros(v);
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Interval scheduling on {@code k} parallel tracks: the largest set of intervals such that each track
+ * holds pairwise non‑overlapping ones.
+ *
+ * <p>Intervals are taken in end order (as in {@link IntervalScheduler}); each goes to the track whose
+ * last end is the latest one not after its start (a {@link TreeMap} floor lookup over track end times),
+ * and is dropped if there is none. Best‑fit keeps the earlier‑ending tracks free for intervals that start
+ * sooner, which makes the greedy optimal. O(n log n + n log k).</p>
+ */
+public final class MultiTrackScheduler {
+
+    /**
+     * @param selected indices of the selected intervals, in order of end
+     * @param track    track (0‥k‑1) of each selected interval, parallel to {@code selected}
+     */
+    public record Assignment(int[] selected, int[] track) {}
+
+    private MultiTrackScheduler() {
+    }
+
+    /**
+     * @param start  interval starts
+     * @param end    interval ends, same length as {@code start}
+     * @param tracks number of parallel tracks ({@code >= 1})
+     */
+    public static Assignment select(long[] start, long[] end, int tracks) {
+        return select(start, end, tracks, SchedulingEngine.PACKED);
+    }
+
+    static Assignment select(long[] start, long[] end, int tracks, SchedulingEngine engine) {
+        int n = IntervalScheduler.checkLengths(start, end);
+        if (tracks < 1) {
+            throw new IllegalArgumentException("tracks must be at least 1");
+        }
+        if (n == 0) {
+            return new Assignment(new int[0], new int[0]);
+        }
+
+        int[] order = IntervalScheduler.sortByEnd(start, end, engine);
+
+        /* end time → tracks libres desde ese instante; al inicio todos los tracks están libres. */
+        TreeMap<Long, ArrayDeque<Integer>> freeAt = new TreeMap<>();
+        ArrayDeque<Integer> initial = new ArrayDeque<>(Math.min(tracks, n));
+        for (int t = 0; t < Math.min(tracks, n); t++) {
+            initial.add(t);
+        }
+        freeAt.put(Long.MIN_VALUE, initial);
+
+        int[] selected = new int[n];
+        int[] track    = new int[n];
+        int count = 0;
+        for (int idx : order) {
+            Map.Entry<Long, ArrayDeque<Integer>> slot = freeAt.floorEntry(start[idx]);
+            if (slot == null) {
+                continue;
+            }
+            ArrayDeque<Integer> ids = slot.getValue();
+            int t = ids.poll();
+            if (ids.isEmpty()) {
+                freeAt.remove(slot.getKey());
+            }
+            freeAt.computeIfAbsent(end[idx], k -> new ArrayDeque<>(1)).add(t);
+
+            selected[count] = idx;
+            track[count]    = t;
+            count++;
+        }
+        return new Assignment(Arrays.copyOf(selected, count), Arrays.copyOf(track, count));
+    }
+}
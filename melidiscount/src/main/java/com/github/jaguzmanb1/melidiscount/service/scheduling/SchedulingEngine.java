@@ -0,0 +1,42 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+/**
+ * How the schedulers order intervals by end. Every engine runs the same greedy / DP / multi‑track
+ * algorithms and yields the same selection (ties by index, zero‑length intervals last); they differ only
+ * in the sort, and so in which input sizes and shapes they are fastest for.
+ *
+ * <p>Engines whose packed keys do not fit in 64 bits fall back to the stable merge sort of
+ * {@link IntervalScheduler}.</p>
+ */
+public enum SchedulingEngine {
+
+    /** Insertion sort of the indices: no key array, meant for a few dozen intervals. */
+    INLINE,
+
+    /** Input already in end order: no sort at all (checked in O(n); unsorted input is packed‑sorted). */
+    PRESORTED,
+
+    /** Packed {@code (end, index)} keys with {@link java.util.Arrays#sort(long[])}. */
+    PACKED,
+
+    /** Packed keys with an LSD radix sort over the end bits. */
+    RADIX,
+
+    /** Packed keys with {@link java.util.Arrays#parallelSort(long[])} on the common fork‑join pool. */
+    PARALLEL;
+
+    /** @see IntervalScheduler#selectNonOverlapping(long[], long[]) */
+    public int[] selectNonOverlapping(long[] start, long[] end) {
+        return IntervalScheduler.selectNonOverlapping(start, end, this);
+    }
+
+    /** @see WeightedIntervalScheduler#selectMaxWeight(long[], long[], double[]) */
+    public int[] selectMaxWeight(long[] start, long[] end, double[] weight) {
+        return WeightedIntervalScheduler.selectMaxWeight(start, end, weight, this);
+    }
+
+    /** @see MultiTrackScheduler#select(long[], long[], int) */
+    public MultiTrackScheduler.Assignment selectOnTracks(long[] start, long[] end, int tracks) {
+        return MultiTrackScheduler.select(start, end, tracks, this);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import java.util.Arrays;
+
+/**
+ * Weighted interval scheduling over primitive arrays: the set of pairwise non‑overlapping intervals with
+ * the largest total weight.
+ *
+ * <p>O(n log n): intervals are sorted by end (shared with {@link IntervalScheduler}), each one's
+ * predecessor — the last interval ending at or before its start — is found by binary search, and a DP over
+ * {@code double[]} picks take/skip. Non‑positive weights are never worth taking.</p>
+ */
+public final class WeightedIntervalScheduler {
+
+    private WeightedIntervalScheduler() {
+    }
+
+    /**
+     * @param start  interval starts
+     * @param end    interval ends
+     * @param weight interval weights (e.g. price), all three arrays of the same length
+     * @return indices of the selected intervals, in order of end
+     */
+    public static int[] selectMaxWeight(long[] start, long[] end, double[] weight) {
+        return selectMaxWeight(start, end, weight, SchedulingEngine.PACKED);
+    }
+
+    static int[] selectMaxWeight(long[] start, long[] end, double[] weight, SchedulingEngine engine) {
+        int n = IntervalScheduler.checkLengths(start, end);
+        if (weight.length != n) {
+            throw new IllegalArgumentException("weight must have the same length as start/end");
+        }
+        if (n == 0) {
+            return new int[0];
+        }
+
+        int[] order = IntervalScheduler.sortByEnd(start, end, engine);
+        long[] sortedEnd = new long[n];
+        for (int j = 0; j < n; j++) {
+            sortedEnd[j] = end[order[j]];
+        }
+
+        /* best[j] = mejor peso usando sólo los primeros j intervalos (en orden de end). */
+        double[] best = new double[n + 1];
+        int[] pred = new int[n];
+        for (int j = 0; j < n; j++) {
+            int idx = order[j];
+            pred[j] = upperBound(sortedEnd, j, start[idx]);
+            double take = weight[idx] + best[pred[j]];
+            best[j + 1] = Math.max(best[j], take);
+        }
+
+        int[] selected = new int[n];
+        int count = 0;
+        for (int j = n; j > 0; ) {
+            int idx = order[j - 1];
+            if (weight[idx] + best[pred[j - 1]] > best[j - 1]) {
+                selected[count++] = idx;
+                j = pred[j - 1];
+            } else {
+                j--;
+            }
+        }
+
+        int[] result = Arrays.copyOf(selected, count);
+        for (int i = 0, k = count - 1; i < k; i++, k--) {
+            int t = result[i];
+            result[i] = result[k];
+            result[k] = t;
+        }
+        return result;
+    }
+
+    /* Cantidad de elementos de sorted[0, limit) que son <= value. */
+    private static int upperBound(long[] sorted, int limit, long value) {
+        int lo = 0;
+        int hi = limit;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.jaguzmanb1.melidiscount.controller;
+
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import com.github.jaguzmanb1.melidiscount.resource.ItemsResourceClient;
+import com.github.jaguzmanb1.melidiscount.service.DiscountService;
+import com.github.jaguzmanb1.melidiscount.service.DiscountSessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/** HTTP status of the session endpoints: 404 for unknown sessions, 413 past {@code max-items}. */
+class MeliDiscountControllerSessionTest {
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        ItemsResourceClient itemsClient = mock(ItemsResourceClient.class);
+        when(itemsClient.fetchItemMetadataAsync(anyList())).thenAnswer(call -> {
+            List<String> ids = call.getArgument(0);
+            return CompletableFuture.completedFuture(ids.stream()
+                    .map(id -> new ItemMetadata(id, 0, 10, "MLA1000", 1.0))
+                    .toList());
+        });
+        DiscountSessionService sessions =
+                new DiscountSessionService(itemsClient, new SimpleMeterRegistry(), 10, 2, Duration.ofMinutes(5));
+        mvc = MockMvcBuilders
+                .standaloneSetup(new MeliDiscountController(mock(DiscountService.class), sessions))
+                .build();
+    }
+
+    @Test
+    void unknownSessionIs404() throws Exception {
+        mvc.perform(get("/meli_discount/sessions/nope"))
+                .andExpect(status().isNotFound());
+        mvc.perform(delete("/meli_discount/sessions/nope"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void patchOfUnknownSessionIs404() throws Exception {
+        mvc.perform(patch("/meli_discount/sessions/nope")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"add\":[\"MLA1\"]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void creatingTooLargeASessionIs413() throws Exception {
+        mvc.perform(post("/meli_discount/sessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"item_ids\":[\"MLA1\",\"MLA2\",\"MLA3\"]}"))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void growingASessionPastTheLimitIs413() throws Exception {
+        MvcResult created = mvc.perform(post("/meli_discount/sessions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"item_ids\":[\"MLA1\",\"MLA2\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mvc.perform(asyncDispatch(created))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String sessionId = body.replaceAll(".*\"session_id\":\"([^\"]+)\".*", "$1");
+
+        /* Quitar IDs que no están no libera lugar. */
+        MvcResult patched = mvc.perform(patch("/meli_discount/sessions/" + sessionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"add\":[\"MLA3\"],\"remove\":[\"X1\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(patched))
+                .andExpect(status().isPayloadTooLarge());
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration LONG_WAIT = Duration.ofMinutes(1);
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void callsBeyondTheLimitQueueUntilAPermitIsReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 5, LONG_WAIT, 2.0);
+
+        assertTrue(limiter.acquire().isDone());
+        assertTrue(limiter.acquire().isDone());
+        CompletableFuture<Void> queued = limiter.acquire();
+
+        assertFalse(queued.isDone());
+        assertEquals(1, limiter.queueDepth());
+        limiter.releaseUnused();
+
+        assertTrue(queued.isDone());
+        assertFalse(queued.isCompletedExceptionally());
+        assertEquals(2, limiter.inFlight());
+        assertEquals(0, limiter.queueDepth());
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1, LONG_WAIT, 2.0);
+
+        limiter.acquire();
+        limiter.acquire();
+        CompletableFuture<Void> rejected = limiter.acquire();
+
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void cancelledWaiterHandsItsPermitToTheNextOne() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 5, LONG_WAIT, 2.0);
+
+        limiter.acquire();
+        CompletableFuture<Void> cancelled = limiter.acquire();
+        CompletableFuture<Void> next = limiter.acquire();
+        assertTrue(cancelled.cancel(false));
+
+        limiter.releaseUnused();
+
+        assertTrue(next.isDone());
+        assertFalse(next.isCompletedExceptionally());
+        assertEquals(1, limiter.inFlight());
+        limiter.releaseUnused();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void cancelledLastWaiterDoesNotLeakItsPermit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 5, LONG_WAIT, 2.0);
+
+        limiter.acquire();
+        limiter.acquire().cancel(false);
+        limiter.releaseUnused();
+
+        assertEquals(0, limiter.inFlight());
+        assertTrue(limiter.acquire().isDone());
+    }
+
+    @Test
+    void queuedCallIsRejectedOnceItsWaitExpires() throws Exception {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(1, 1, 10, 5, Duration.ofMillis(20), 2.0);
+
+        limiter.acquire();
+        CompletableFuture<Void> queued = limiter.acquire();
+
+        CompletionException e = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        while (limiter.queueDepth() != 0) {
+            Thread.sleep(1);   // el lugar en cola se libera justo después de rechazar
+        }
+        assertEquals(1, limiter.rejectedCount());
+
+        limiter.releaseUnused();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void admittedCallIsNotRejectedWhenItsWaitExpiresLater() throws Exception {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(1, 1, 10, 5, Duration.ofMillis(20), 2.0);
+
+        limiter.acquire();
+        CompletableFuture<Void> queued = limiter.acquire();
+        limiter.releaseUnused();
+        Thread.sleep(50);
+
+        assertFalse(queued.isCompletedExceptionally());
+        assertEquals(0, limiter.rejectedCount());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    @Test
+    void tryAcquireNeverQueuesNorJumpsTheQueue() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 5, LONG_WAIT, 2.0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.acquire().isDone());
+        assertFalse(limiter.tryAcquire());
+
+        CompletableFuture<Void> queued = limiter.acquire();
+        limiter.releaseUnused();
+        assertTrue(queued.isDone());   // el hueco fue para el que esperaba, no para tryAcquire
+        assertFalse(limiter.tryAcquire());
+        assertEquals(0, limiter.rejectedCount());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    void limitGrowsWhileFastAndBacksOffOnErrorsAndSlowCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 0, LONG_WAIT, 2.0);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.release(MILLI, true);
+        }
+        double grown = limiter.limit();
+        assertTrue(grown > 10, "limit should grow, was " + grown);
+
+        limiter.acquire();
+        limiter.release(MILLI, false);
+        assertEquals(grown * 0.9, limiter.limit(), 1e-9);
+
+        double beforeSlow = limiter.limit();
+        limiter.acquire();
+        limiter.release(3 * MILLI, true);   // más de 2 × el RTT mínimo
+        assertEquals(beforeSlow * 0.9, limiter.limit(), 1e-9);
+    }
+
+    @Test
+    void limitStaysWithinBounds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 3, 0, LONG_WAIT, 2.0);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(MILLI, false);
+        }
+        assertEquals(2.0, limiter.limit(), 0.0);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(MILLI, true);
+        }
+        assertEquals(3.0, limiter.limit(), 0.0);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(0, 1, 10, 1, LONG_WAIT, 2.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(5, 1, 4, 1, LONG_WAIT, 2.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(2, 1, 10, 1, Duration.ZERO, 2.0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(2, 1, 10, 1, LONG_WAIT, 0.5));
+    }
+}
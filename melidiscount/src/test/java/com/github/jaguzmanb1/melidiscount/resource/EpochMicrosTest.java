@@ -0,0 +1,84 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpochMicrosTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            /* Z y offsets ±HH:MM */
+            "2024-05-17T10:15:30Z",
+            "2024-05-17T10:15:30+00:00",
+            "2024-05-17T10:15:30-03:00",
+            "2024-05-17T10:15:30+05:45",
+            "2024-05-17T23:59:59-12:00",
+            "2024-05-17T00:00:00+14:00",
+            "2024-05-17T10:15:30+18:00",
+            /* 0, 1, 3, 6 y 9 dígitos de fracción (más allá de 6 se trunca a micros) */
+            "2024-05-17T10:15:30.1Z",
+            "2024-05-17T10:15:30.123Z",
+            "2024-05-17T10:15:30.123456Z",
+            "2024-05-17T10:15:30.123456789Z",
+            "2024-05-17T10:15:30.000000001-03:00",
+            "2024-05-17T10:15:30.999999999+01:00",
+            /* antes de 1970: segundos negativos con fracción positiva */
+            "1969-12-31T23:59:59.999999Z",
+            "1969-12-31T23:59:59.5+00:30",
+            "1900-01-01T00:00:00Z",
+            "1600-03-01T12:00:00.000001-05:00",
+            "0001-01-01T00:00:00Z",
+            "1970-01-01T00:00:00Z",
+            /* años bisiestos y bordes de mes */
+            "2024-02-29T12:00:00Z",
+            "2000-02-29T23:59:59.999-01:00",
+            "1904-02-29T00:00:00+09:00",
+            "2023-03-01T00:00:00Z",
+            "2023-12-31T23:59:59.999999999Z",
+            "9999-12-31T23:59:59Z"
+    })
+    void fastPathMatchesOffsetDateTime(String text) {
+        assertEquals(reference(text), EpochMicros.parse(text), text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2024-05-17T10:15:30+05",           // offset sin minutos
+            "2024-05-17T10:15:30+05:45:10",     // offset con segundos
+            "2024-05-17T10:15Z",                // sin segundos
+            "2024-05-17T10:15:30.Z"             // separador sin dígitos
+    })
+    void otherIsoShapesGoThroughTheFallback(String text) {
+        assertEquals(reference(text), EpochMicros.parse(text), text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            /* el camino rápido no debe aceptar fechas que java.time rechaza */
+            "2023-02-29T00:00:00Z",             // no bisiesto
+            "1900-02-29T00:00:00Z",             // divisible por 100
+            "2024-04-31T00:00:00Z",
+            "2024-13-01T00:00:00Z",
+            "2024-05-17T24:00:00Z",
+            "2024-05-17T10:15:30+19:00",
+            "2024-05-17T10:15:30+0545",         // offset sin ':'
+            "2024-05-17T10:15:30",              // sin offset
+            "2024-05-17T10:15:30.1234567890Z",  // 10 dígitos de fracción
+            "2024-05-17 10:15:30Z",
+            "not a timestamp at all"
+    })
+    void invalidInputIsRejectedLikeOffsetDateTime(String text) {
+        assertThrows(DateTimeParseException.class, () -> reference(text));
+        assertThrows(DateTimeParseException.class, () -> EpochMicros.parse(text));
+    }
+
+    private static long reference(String text) {
+        return ItemMetadata.toEpochMicros(OffsetDateTime.parse(text));
+    }
+}
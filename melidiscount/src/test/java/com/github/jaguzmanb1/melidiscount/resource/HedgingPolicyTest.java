@@ -0,0 +1,179 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class HedgingPolicyTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(5);
+
+    /* Tentativas lanzadas por la llamada bajo prueba, en orden: [0] primaria, [1] hedge. */
+    private final List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+    private final List<String> discarded = new CopyOnWriteArrayList<>();
+
+    @Test
+    void noHedgeWhileThereAreTooFewSamples() throws Exception {
+        HedgingPolicy policy = new HedgingPolicy(0.95, MIN_DELAY, 1.0);
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), discarded::add);
+        Thread.sleep(MIN_DELAY.toMillis() * 10);
+
+        assertEquals(1, attempts.size());
+        assertEquals(-1.0, policy.hedgeDelayMillis(), 0.0);
+        attempts.get(0).complete("p");
+        assertEquals("p", result.join());
+        assertEquals(0, policy.firedCount());
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndCancelledWhenTheHedgeWins() throws Exception {
+        HedgingPolicy policy = warmedUp(1.0);
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), discarded::add);
+        waitFor(() -> attempts.size() == 2);
+        attempts.get(1).complete("h");
+
+        assertEquals("h", result.join());
+        assertTrue(attempts.get(0).isCancelled());
+        assertEquals(1, policy.firedCount());
+        assertEquals(1, policy.wonCount());
+        assertEquals(List.of(), discarded);
+    }
+
+    @Test
+    void loserThatAnswersAnywayIsDiscarded() throws Exception {
+        HedgingPolicy policy = warmedUp(1.0);
+
+        /* La respuesta del perdedor ya estaba en camino: cancelar su future no la detiene. */
+        CompletableFuture<String> result = policy.call(attempt(Uncancellable::new), discarded::add);
+        waitFor(() -> attempts.size() == 2);
+        attempts.get(1).complete("h");
+        attempts.get(0).complete("p");
+
+        assertEquals("h", result.join());
+        assertEquals(List.of("p"), discarded);
+    }
+
+    @Test
+    void failedPrimaryWaitsForTheHedge() throws Exception {
+        HedgingPolicy policy = warmedUp(1.0);
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), discarded::add);
+        waitFor(() -> attempts.size() == 2);
+        attempts.get(0).completeExceptionally(new IllegalStateException("primary"));
+        assertFalse(result.isDone());
+        attempts.get(1).complete("h");
+
+        assertEquals("h", result.join());
+    }
+
+    @Test
+    void lastFailureIsReportedWhenEveryAttemptFails() throws Exception {
+        HedgingPolicy policy = warmedUp(1.0);
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), discarded::add);
+        waitFor(() -> attempts.size() == 2);
+        attempts.get(0).completeExceptionally(new IllegalStateException("primary"));
+        IllegalStateException hedgeFailure = new IllegalStateException("hedge");
+        attempts.get(1).completeExceptionally(hedgeFailure);
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertSame(hedgeFailure, e.getCause());
+    }
+
+    @Test
+    void noHedgeWithoutBudget() throws Exception {
+        HedgingPolicy policy = warmedUp(0.0);
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), discarded::add);
+        waitFor(() -> policy.deniedBudgetCount() == 1);
+        attempts.get(0).complete("p");
+
+        assertEquals("p", result.join());
+        assertEquals(1, attempts.size());
+        assertEquals(0, policy.firedCount());
+    }
+
+    @Test
+    void hedgeRefusedByTheGateIsSkippedAndItsTokenRefunded() throws Exception {
+        HedgingPolicy policy = warmedUp(1.0);
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), attempt(CompletableFuture::new),
+                () -> false, discarded::add);
+        waitFor(() -> policy.deniedGateCount() == 1);
+        attempts.get(0).complete("p");
+
+        assertEquals("p", result.join());
+        assertEquals(1, attempts.size());
+        assertEquals(0, policy.firedCount());
+
+        /* El token devuelto alcanza para el próximo hedge. */
+        CompletableFuture<String> next = policy.call(attempt(CompletableFuture::new), discarded::add);
+        waitFor(() -> attempts.size() == 3);
+        attempts.get(2).complete("h");
+        assertEquals("h", next.join());
+    }
+
+    @Test
+    void admittedHedgeUsesTheHedgeSupplier() throws Exception {
+        HedgingPolicy policy = warmedUp(1.0);
+        CompletableFuture<String> hedge = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.call(attempt(CompletableFuture::new), () -> hedge,
+                () -> true, discarded::add);
+        waitFor(() -> policy.firedCount() == 1);
+        hedge.complete("h");
+
+        assertEquals("h", result.join());
+        assertTrue(attempts.get(0).isCancelled());
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void rejectsOutOfRangeSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(1.0, MIN_DELAY, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(0.95, MIN_DELAY, 1.5));
+    }
+
+    /* Llamadas instantáneas hasta que haya percentil: el retardo queda en MIN_DELAY. */
+    private static HedgingPolicy warmedUp(double budgetRatio) {
+        HedgingPolicy policy = new HedgingPolicy(0.95, MIN_DELAY, budgetRatio);
+        while (policy.hedgeDelayMillis() < 0) {
+            policy.call(() -> CompletableFuture.completedFuture("warm-up"), v -> {});
+        }
+        assertEquals(MIN_DELAY.toMillis(), policy.hedgeDelayMillis(), 1.0);
+        return policy;
+    }
+
+    private Supplier<CompletableFuture<String>> attempt(Supplier<CompletableFuture<String>> factory) {
+        return () -> {
+            CompletableFuture<String> f = factory.get();
+            attempts.add(f);
+            return f;
+        };
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static final class Uncancellable<T> extends CompletableFuture<T> {
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+    }
+}
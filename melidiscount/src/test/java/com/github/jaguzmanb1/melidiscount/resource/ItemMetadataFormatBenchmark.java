@@ -0,0 +1,121 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java‑side counterpart of {@code format_bench.py}: decodes the same 1,000‑item <code>/items</code> body
+ * with {@link ItemMetadataReader} over a {@link JsonFactory} (ISO‑8601 timestamps) and over a
+ * {@link CBORFactory} (epoch‑micros integers), and reports bytes and parse time per 1,000 items.
+ *
+ * <p>Items have the Items API shape (seller, title, category, price, both timestamps) so the reader also
+ * pays for the fields it skips. Not part of the test suite; run it by hand after touching the reader:</p>
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.github.jaguzmanb1.melidiscount.resource.ItemMetadataFormatBenchmark
+ * </pre>
+ */
+public final class ItemMetadataFormatBenchmark {
+
+    private static final int ITEMS = 1_000;
+    private static final int WARMUP_RUNS = 2_000;
+    private static final int RUNS = 2_000;
+    private static final long DAY_MICROS = 86_400_000_000L;
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private ItemMetadataFormatBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long now = System.currentTimeMillis() * 1_000L;
+        byte[] json = body(new JsonFactory(), now, false);
+        byte[] cbor = body(new CBORFactory(), now, true);
+
+        ItemMetadataReader jsonReader = new ItemMetadataReader(new JsonFactory());
+        ItemMetadataReader cborReader = new ItemMetadataReader(new CBORFactory());
+        if (!jsonReader.read(new ByteArrayInputStream(json)).equals(cborReader.read(new ByteArrayInputStream(cbor)))) {
+            throw new IllegalStateException("JSON and CBOR bodies decode to different metadata");
+        }
+
+        double jsonMicros = time(jsonReader, json);
+        double cborMicros = time(cborReader, cbor);
+
+        System.out.println("Items wire format, per 1,000 items:");
+        System.out.printf("%-6s %10s %12s%n", "format", "bytes", "parse µs");
+        System.out.printf("%-6s %10d %12.1f%n", "json", json.length, jsonMicros);
+        System.out.printf("%-6s %10d %12.1f%n", "cbor", cbor.length, cborMicros);
+        System.out.printf("CBOR/JSON bytes: %.2f  parse: %.2f%n",
+                (double) cbor.length / json.length, cborMicros / jsonMicros);
+    }
+
+    /* Mismos ítems (semilla fija) en los dos formatos; CBOR lleva los timestamps como enteros. */
+    private static byte[] body(JsonFactory factory, long now, boolean epochMicros) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator g = factory.createGenerator(out)) {
+            g.writeStartArray();
+            for (int i = 0; i < ITEMS; i++) {
+                long created = now - random.nextLong(30, 366) * DAY_MICROS + random.nextLong(DAY_MICROS);
+                long updated = created + random.nextLong(1, 30) * DAY_MICROS + random.nextLong(DAY_MICROS);
+                g.writeStartObject();
+                g.writeStringField("seller_id", "SELLER_" + random.nextInt(1, 500));
+                g.writeStringField("title", "Item title number " + i);
+                g.writeStringField("category_id", "MLA" + (10_000 + random.nextInt(5_000)));
+                g.writeNumberField("price", Math.round(random.nextDouble(1, 10_000) * 100) / 100.0);
+                writeTimestamp(g, "date_created", created, epochMicros);
+                writeTimestamp(g, "last_updated", updated, epochMicros);
+                g.writeStringField("id", "MLA" + i);
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeTimestamp(JsonGenerator g, String field, long micros, boolean epochMicros)
+            throws IOException {
+        if (epochMicros) {
+            g.writeNumberField(field, micros);
+        } else {
+            Instant instant = Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+            g.writeStringField(field, ISO.format(instant));
+        }
+    }
+
+    /* Media en µs por body de 1,000 ítems, tras una ronda de calentamiento. */
+    private static double time(ItemMetadataReader reader, byte[] body) throws IOException {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            sink += parse(reader, body);
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            sink += parse(reader, body);
+        }
+        double micros = (double) (System.nanoTime() - t0) / TimeUnit.MICROSECONDS.toNanos(1) / RUNS;
+        if (sink == 42) {
+            System.out.print("");   // evita que el JIT descarte el parseo
+        }
+        return micros * 1_000 / ITEMS;
+    }
+
+    private static long parse(ItemMetadataReader reader, byte[] body) throws IOException {
+        List<ItemMetadata> items = reader.read(new ByteArrayInputStream(body));
+        return items.get(items.size() - 1).end();
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.jaguzmanb1.melidiscount.resource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class MicroBatcherTest {
+
+    /* Cada llamada al loader queda registrada; responde "v-<id>" salvo para los IDs que empiezan con "missing". */
+    private final List<List<String>> calls = new CopyOnWriteArrayList<>();
+
+    private CompletableFuture<Map<String, String>> load(List<String> ids) {
+        calls.add(ids);
+        Map<String, String> values = new HashMap<>();
+        for (String id : ids) {
+            if (!id.startsWith("missing")) {
+                values.put(id, "v-" + id);
+            }
+        }
+        return CompletableFuture.completedFuture(values);
+    }
+
+    @Test
+    void fullBatchIsDispatchedOnSizeWithoutWaitingForTheWindow() throws Exception {
+        MicroBatcher<String> batcher = new MicroBatcher<>(this::load, Duration.ofHours(1), 3);
+
+        CompletableFuture<Map<String, String>> first  = batcher.submit(List.of("a", "b"));
+        assertFalse(first.isDone());
+        CompletableFuture<Map<String, String>> second = batcher.submit(List.of("b", "c"));
+
+        assertEquals(Map.of("a", "v-a", "b", "v-b"), first.get(1, TimeUnit.SECONDS));
+        assertEquals(Map.of("b", "v-b", "c", "v-c"), second.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("a", "b", "c")), calls);
+    }
+
+    @Test
+    void partialBatchIsDispatchedWhenTheWindowElapses() {
+        MicroBatcher<String> batcher = new MicroBatcher<>(this::load, Duration.ofMillis(20), 100);
+
+        long t0 = System.nanoTime();
+        CompletableFuture<Map<String, String>> first  = batcher.submit(List.of("a"));
+        CompletableFuture<Map<String, String>> second = batcher.submit(List.of("b", "missing-1"));
+
+        assertEquals(Map.of("a", "v-a"), first.join());
+        assertEquals(Map.of("b", "v-b"), second.join());
+        assertTrue(System.nanoTime() - t0 >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(List.of(List.of("a", "b", "missing-1")), calls);
+    }
+
+    @Test
+    void submitAfterAFlushOpensANewBatch() {
+        MicroBatcher<String> batcher = new MicroBatcher<>(this::load, Duration.ofMillis(10), 2);
+
+        assertEquals(Map.of("a", "v-a", "b", "v-b"), batcher.submit(List.of("a", "b")).join());
+        assertEquals(Map.of("c", "v-c"), batcher.submit(List.of("c")).join());
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), calls);
+    }
+
+    @Test
+    void loaderFailureReachesEveryCallerOfTheBatch() {
+        IllegalStateException boom = new IllegalStateException("boom");
+        MicroBatcher<String> batcher = new MicroBatcher<>(
+                ids -> CompletableFuture.failedFuture(boom), Duration.ofHours(1), 2);
+
+        CompletableFuture<Map<String, String>> first  = batcher.submit(List.of("a"));
+        CompletableFuture<Map<String, String>> second = batcher.submit(List.of("b"));
+
+        for (CompletableFuture<Map<String, String>> f : List.of(first, second)) {
+            CompletionException e = assertThrows(CompletionException.class, f::join);
+            assertSame(boom, e.getCause());
+        }
+    }
+
+    @Test
+    void loaderThatThrowsFailsTheBatchInsteadOfTheSubmitter() {
+        MicroBatcher<String> batcher = new MicroBatcher<>(ids -> {
+            throw new IllegalStateException("boom");
+        }, Duration.ofHours(1), 1);
+
+        CompletableFuture<Map<String, String>> slice = batcher.submit(List.of("a"));
+
+        CompletionException e = assertThrows(CompletionException.class, slice::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void closeDispatchesTheOpenBatch() throws Exception {
+        MicroBatcher<String> batcher = new MicroBatcher<>(this::load, Duration.ofHours(1), 100);
+
+        CompletableFuture<Map<String, String>> pending = batcher.submit(List.of("a", "b"));
+        assertFalse(pending.isDone());
+        batcher.close();
+
+        assertEquals(Map.of("a", "v-a", "b", "v-b"), pending.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("a", "b")), calls);
+        batcher.close();   // idempotente
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void submitAfterCloseGoesStraightToTheLoader() {
+        MicroBatcher<String> batcher = new MicroBatcher<>(this::load, Duration.ofHours(1), 100);
+        batcher.close();
+
+        assertEquals(Map.of("a", "v-a"), batcher.submit(List.of("a", "a", "missing-1")).join());
+        assertEquals(Map.of("b", "v-b"), batcher.submit(List.of("b")).join());
+        assertEquals(List.of(List.of("a", "missing-1"), List.of("b")), calls);
+    }
+
+    @Test
+    void rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new MicroBatcher<>(this::load, Duration.ZERO, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MicroBatcher<>(this::load, Duration.ofMillis(1), 0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+import com.github.jaguzmanb1.melidiscount.dto.ItemMetadata;
+import com.github.jaguzmanb1.melidiscount.resource.ItemsResourceClient;
+import com.github.jaguzmanb1.melidiscount.service.DiscountSessionService.SessionNotFoundException;
+import com.github.jaguzmanb1.melidiscount.service.DiscountSessionService.SessionTooLargeException;
+import com.github.jaguzmanb1.melidiscount.service.DiscountSessionService.SessionView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DiscountSessionServiceTest {
+
+    private static final int MAX_ITEMS = 3;
+
+    private ItemsResourceClient itemsClient;
+    private DiscountSessionService service;
+
+    @BeforeEach
+    void setUp() {
+        itemsClient = mock(ItemsResourceClient.class);
+        /* El cliente devuelve un intervalo por ID: MLA<n> dura [10n, 10n + 10). */
+        when(itemsClient.fetchItemMetadataAsync(anyList())).thenAnswer(call -> {
+            List<String> ids = call.getArgument(0);
+            return CompletableFuture.completedFuture(ids.stream().distinct().map(DiscountSessionServiceTest::item).toList());
+        });
+        service = new DiscountSessionService(itemsClient, new SimpleMeterRegistry(), 10, MAX_ITEMS, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void createAndUpdateReturnTheRepairedSelection() {
+        SessionView created = service.create(List.of("MLA1", "MLA2")).join();
+        assertEquals(2, created.size());
+        assertEquals(List.of("MLA1", "MLA2"), created.itemIds());
+
+        SessionView updated = service.update(created.sessionId(), List.of("MLA3"), List.of("MLA1")).join();
+
+        assertEquals(2, updated.size());
+        assertEquals(List.of("MLA2", "MLA3"), updated.itemIds());
+        assertEquals(updated, service.get(created.sessionId()));
+    }
+
+    @Test
+    void unknownOrDeletedSessionIsNotFound() {
+        assertThrows(SessionNotFoundException.class, () -> service.get("nope"));
+        assertThrows(SessionNotFoundException.class, () -> service.update("nope", List.of("MLA1"), null));
+
+        String id = service.create(List.of("MLA1")).join().sessionId();
+        service.delete(id);
+
+        assertThrows(SessionNotFoundException.class, () -> service.get(id));
+    }
+
+    @Test
+    void createBeyondTheLimitIsTooLarge() {
+        assertThrows(SessionTooLargeException.class,
+                () -> service.create(List.of("MLA1", "MLA2", "MLA3", "MLA4")));
+        assertEquals(3, service.create(List.of("MLA1", "MLA2", "MLA3", "MLA3")).join().size());
+    }
+
+    @Test
+    void unknownRemoveIdsDoNotMakeRoomForMoreItems() {
+        String id = service.create(List.of("MLA1", "MLA2", "MLA3")).join().sessionId();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> service.update(id, List.of("MLA4", "MLA5"), List.of("X1", "X2")).join());
+
+        assertInstanceOf(SessionTooLargeException.class, e.getCause());
+        assertEquals(3, service.get(id).size());
+    }
+
+    @Test
+    void reputtingExistingItemsIntoAFullSessionIsAllowed() {
+        String id = service.create(List.of("MLA1", "MLA2", "MLA3")).join().sessionId();
+
+        assertEquals(3, service.update(id, List.of("MLA1", "MLA3"), null).join().size());
+        assertEquals(3, service.update(id, List.of("MLA4"), List.of("MLA1")).join().size());
+        assertEquals(List.of("MLA2", "MLA3", "MLA4"), service.get(id).itemIds());
+    }
+
+    private static ItemMetadata item(String id) {
+        long n = Long.parseLong(id.substring(3));
+        return new ItemMetadata(id, n * 10, n * 10 + 10, "MLA1000", 1.0);
+    }
+}
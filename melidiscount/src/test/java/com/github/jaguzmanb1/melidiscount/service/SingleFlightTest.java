@@ -0,0 +1,140 @@
+package com.github.jaguzmanb1.melidiscount.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Timeout(10)
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        int callers = 8;
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> leader = flight.executeAsync("k", () -> {
+            runs.incrementAndGet();
+            return upstream;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers - 1);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CompletableFuture<String>>> joiners = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                joiners.add(pool.submit(() -> {
+                    start.await();
+                    return flight.executeAsync("k", () -> {
+                        runs.incrementAndGet();
+                        return CompletableFuture.completedFuture("other");
+                    });
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (Future<CompletableFuture<String>> joiner : joiners) {
+                results.add(joiner.get());
+            }
+            assertTrue(results.stream().noneMatch(CompletableFuture::isDone));
+            upstream.complete("v");
+
+            assertEquals("v", leader.join());
+            for (CompletableFuture<String> result : results) {
+                assertEquals("v", result.join());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1, flight.leaderCount());
+        assertEquals(callers - 1, flight.joinedCount());
+    }
+
+    @Test
+    void landedFlightIsNotMemoised() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals("1", flight.executeAsync("k",
+                () -> CompletableFuture.completedFuture(String.valueOf(runs.incrementAndGet()))).join());
+        assertEquals("2", flight.executeAsync("k",
+                () -> CompletableFuture.completedFuture(String.valueOf(runs.incrementAndGet()))).join());
+        assertEquals(2, flight.leaderCount());
+        assertEquals(0, flight.joinedCount());
+    }
+
+    @Test
+    void leaderFailureReachesJoinersAndClearsTheKey() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> leader = flight.executeAsync("k", () -> upstream);
+        CompletableFuture<String> joiner = flight.executeAsync("k", () -> CompletableFuture.completedFuture("unused"));
+
+        upstream.completeExceptionally(new IllegalStateException("boom"));
+
+        for (CompletableFuture<String> f : List.of(leader, joiner)) {
+            CompletionException e = assertThrows(CompletionException.class, f::join);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals("fresh", flight.executeAsync("k", () -> CompletableFuture.completedFuture("fresh")).join());
+    }
+
+    @Test
+    void joinersGetIndependentCopies() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<String> first = flight.executeAsync("k", () -> {
+            runs.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = flight.executeAsync("k", () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+
+        assertTrue(second.cancel(true));
+        upstream.complete("v");
+
+        assertEquals("v", first.join());
+        assertTrue(second.isCancelled());
+        assertEquals(1, runs.get());
+        assertEquals(1, flight.joinedCount());
+
+        /* El vuelo aterrizó: la siguiente llamada vuelve a ejecutar. */
+        assertEquals("again", flight.executeAsync("k", () -> CompletableFuture.completedFuture("again")).join());
+    }
+
+    @Test
+    void cancellingTheLeadersCopyDoesNotCancelTheFlight() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> leader = flight.executeAsync("k", () -> upstream);
+        CompletableFuture<String> joiner = flight.executeAsync("k", () -> CompletableFuture.completedFuture("unused"));
+
+        assertTrue(leader.cancel(true));
+        upstream.complete("v");
+
+        assertFalse(upstream.isCancelled());
+        assertEquals("v", joiner.join());
+    }
+
+    @Test
+    void workThatThrowsDoesNotLeaveAFlightBehind() {
+        assertThrows(IllegalStateException.class, () -> flight.executeAsync("k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", flight.executeAsync("k", () -> CompletableFuture.completedFuture("ok")).join());
+        assertEquals(0, flight.joinedCount());
+    }
+}
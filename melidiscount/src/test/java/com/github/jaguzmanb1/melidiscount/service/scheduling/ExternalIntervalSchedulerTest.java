@@ -0,0 +1,131 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalIntervalSchedulerTest {
+
+    private static final long ONE_MB = 1 << 20;
+    /* Con 1 MB se abren a lo sumo 8 corridas a la vez (ver maxFanIn). */
+    private static final int MAX_FAN_IN = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void spilledAndMergedSelectionMatchesTheInMemoryOne() throws IOException {
+        assertMatchesInMemory(end -> SchedulingEngine.PACKED);
+    }
+
+    @Test
+    void everyRunCanUseADifferentEngine() throws IOException {
+        SchedulingEngine[] engines = {SchedulingEngine.RADIX, SchedulingEngine.PACKED, SchedulingEngine.PARALLEL};
+        int[] next = {0};
+        assertMatchesInMemory(end -> engines[next[0]++ % engines.length]);
+    }
+
+    @Test
+    void smallInputsNeverTouchTheDisk() throws IOException {
+        List<String> selected = new ArrayList<>();
+        try (ExternalIntervalScheduler scheduler = new ExternalIntervalScheduler(ONE_MB, tempDir)) {
+            scheduler.add("A", 0, 10);
+            scheduler.add("B", 5, 15);
+            scheduler.add("C", 10, 10);
+            scheduler.add("C", 10, 10);   // repetido, de longitud cero
+            scheduler.add("D", 10, 20);
+
+            assertEquals(3, scheduler.select(selected::add));
+            assertEquals(0, scheduler.spilledRuns());
+        }
+        assertEquals(List.of("A", "C", "D"), selected);
+        assertEquals(0, filesIn(tempDir));
+    }
+
+    @Test
+    void selectIsSingleUse() throws IOException {
+        try (ExternalIntervalScheduler scheduler = new ExternalIntervalScheduler(ONE_MB, tempDir)) {
+            scheduler.select(id -> {});
+            assertThrows(IllegalStateException.class, () -> scheduler.select(id -> {}));
+            assertThrows(IllegalStateException.class, () -> scheduler.add("A", 0, 1));
+        }
+    }
+
+    @Test
+    void rejectsBudgetsBelowOneMegabyte() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalIntervalScheduler(ONE_MB - 1, tempDir));
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private void assertMatchesInMemory(Function<long[], SchedulingEngine> engines) throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        Map<String, long[]> distinct = new LinkedHashMap<>();   // id → {start, end}, en orden de alta
+        List<String> added = new ArrayList<>();
+
+        List<String> selected = new ArrayList<>();
+        long spilled;
+        try (ExternalIntervalScheduler scheduler = new ExternalIntervalScheduler(ONE_MB, tempDir, engines)) {
+            for (int i = 0; i < 120_000; i++) {
+                String id;
+                long[] interval;
+                if (i > 0 && random.nextInt(6) == 0) {
+                    /* ID repetido: la metadata de un ID es siempre la misma, así que también su intervalo. */
+                    id = added.get(random.nextInt(added.size()));
+                    interval = distinct.get(id);
+                } else {
+                    id = "MLA" + i;
+                    /* Ends en múltiplos de 1000: muchos empates; 1 de cada 10 de longitud cero. */
+                    long end = random.nextLong(100_000) * 1_000;
+                    long start = random.nextInt(10) == 0 ? end : end - random.nextLong(1, 2_000_000);
+                    interval = new long[]{start, end};
+                    distinct.put(id, interval);
+                }
+                added.add(id);
+                scheduler.add(id, interval[0], interval[1]);
+            }
+
+            scheduler.select(selected::add);
+            spilled = scheduler.spilledRuns();
+            assertTrue(spilled > MAX_FAN_IN, "expected an intermediate merge pass, runs: " + spilled);
+            long left = filesIn(tempDir);
+            assertTrue(left > 0 && left < spilled, "merged runs left on disk: " + left);
+        }
+
+        assertEquals(inMemory(distinct), selected);
+        assertEquals(0, filesIn(tempDir), "temp files left after close()");
+    }
+
+    private static List<String> inMemory(Map<String, long[]> intervals) {
+        List<String> ids = new ArrayList<>(intervals.keySet());
+        long[] start = new long[ids.size()];
+        long[] end = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            start[i] = intervals.get(ids.get(i))[0];
+            end[i] = intervals.get(ids.get(i))[1];
+        }
+        List<String> selected = new ArrayList<>();
+        for (int idx : IntervalScheduler.selectNonOverlapping(start, end)) {
+            selected.add(ids.get(idx));
+        }
+        return selected;
+    }
+
+    private static long filesIn(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
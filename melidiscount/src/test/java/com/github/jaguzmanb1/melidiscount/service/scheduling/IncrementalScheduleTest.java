@@ -0,0 +1,113 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import com.github.jaguzmanb1.melidiscount.service.scheduling.IncrementalSchedule.Interval;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalScheduleTest {
+
+    @Test
+    void randomDeltasMatchAFullGreedyRecompute() {
+        SplittableRandom random = new SplittableRandom(23);
+        for (int run = 0; run < 200; run++) {
+            IncrementalSchedule schedule = new IncrementalSchedule();
+            /* Modelo: mismo orden de inserción que el schedule (un reemplazo pasa al final). */
+            Map<String, Interval> model = new LinkedHashMap<>();
+
+            for (int step = 0; step < 60; step++) {
+                List<String> remove = new ArrayList<>();
+                for (int r = random.nextInt(4); r > 0; r--) {
+                    remove.add(randomId(random));   // incluye IDs que no están
+                }
+                List<Interval> put = new ArrayList<>();
+                for (int p = random.nextInt(6); p > 0; p--) {
+                    long start = random.nextInt(100);
+                    long end = start + (random.nextInt(5) == 0 ? 0 : random.nextInt(1, 15));
+                    put.add(new Interval(randomId(random), start, end));
+                }
+
+                int expectedSize = apply(model, remove, put);
+                assertEquals(expectedSize, schedule.sizeAfter(remove, put), "run " + run + ", step " + step);
+                schedule.update(remove, put);
+
+                assertEquals(model.size(), schedule.size());
+                assertEquals(recompute(model), schedule.selectedIds(), "run " + run + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    void removingEverythingLeavesAnEmptySelection() {
+        IncrementalSchedule schedule = new IncrementalSchedule();
+        schedule.update(List.of(), List.of(new Interval("A", 0, 10), new Interval("B", 10, 20)));
+        assertEquals(List.of("A", "B"), schedule.selectedIds());
+
+        schedule.update(List.of("A", "B", "C"), List.of());
+
+        assertEquals(0, schedule.size());
+        assertEquals(List.of(), schedule.selectedIds());
+    }
+
+    @Test
+    void replacingAnIntervalRepairsTheSelection() {
+        IncrementalSchedule schedule = new IncrementalSchedule();
+        schedule.update(List.of(), List.of(
+                new Interval("A", 0, 10), new Interval("B", 5, 15), new Interval("C", 10, 20)));
+        assertEquals(List.of("A", "C"), schedule.selectedIds());
+
+        schedule.update(List.of(), List.of(new Interval("A", 0, 30)));
+
+        assertEquals(3, schedule.size());
+        assertEquals(List.of("B"), schedule.selectedIds());
+    }
+
+    @Test
+    void sizeAfterCountsOnlyRealChanges() {
+        IncrementalSchedule schedule = new IncrementalSchedule();
+        schedule.update(List.of(), List.of(new Interval("A", 0, 10), new Interval("B", 10, 20)));
+
+        assertEquals(2, schedule.sizeAfter(List.of("X", "Y", "Z"), List.of()));
+        assertEquals(2, schedule.sizeAfter(List.of(), List.of(new Interval("A", 0, 5))));
+        assertEquals(2, schedule.sizeAfter(List.of("A"), List.of(new Interval("A", 0, 5))));
+        assertEquals(3, schedule.sizeAfter(List.of(), List.of(new Interval("C", 0, 5), new Interval("C", 1, 5))));
+        assertEquals(1, schedule.sizeAfter(List.of("A", "A"), List.of()));
+        assertEquals(2, schedule.size());
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private static String randomId(SplittableRandom random) {
+        return "MLA" + random.nextInt(40);
+    }
+
+    private static int apply(Map<String, Interval> model, List<String> remove, List<Interval> put) {
+        remove.forEach(model::remove);
+        for (Interval interval : put) {
+            model.remove(interval.id());
+            model.put(interval.id(), interval);
+        }
+        return model.size();
+    }
+
+    private static List<String> recompute(Map<String, Interval> model) {
+        List<Interval> intervals = new ArrayList<>(model.values());
+        long[] start = new long[intervals.size()];
+        long[] end = new long[intervals.size()];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = intervals.get(i).start();
+            end[i] = intervals.get(i).end();
+        }
+        List<String> ids = new ArrayList<>();
+        for (int idx : IntervalScheduler.selectNonOverlapping(start, end)) {
+            ids.add(intervals.get(idx).id());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import com.github.jaguzmanb1.melidiscount.service.scheduling.MultiTrackScheduler.Assignment;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static com.github.jaguzmanb1.melidiscount.service.scheduling.WeightedIntervalSchedulerTest.assertValidSelection;
+import static com.github.jaguzmanb1.melidiscount.service.scheduling.WeightedIntervalSchedulerTest.overlap;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiTrackSchedulerTest {
+
+    @Test
+    void matchesBruteForceOnSmallRandomInputs() {
+        SplittableRandom random = new SplittableRandom(31);
+        for (int round = 0; round < 1_500; round++) {
+            int n = random.nextInt(11);
+            int tracks = random.nextInt(1, 4);
+            long[] start = new long[n];
+            long[] end = new long[n];
+            for (int i = 0; i < n; i++) {
+                /* Rango chico: muchos ends compartidos y de longitud cero. */
+                start[i] = random.nextInt(15);
+                end[i] = start[i] + (random.nextInt(4) == 0 ? 0 : random.nextInt(1, 8));
+            }
+
+            int optimum = bruteForceMaxOnTracks(start, end, tracks);
+            for (SchedulingEngine engine : SchedulingEngine.values()) {
+                Assignment assignment = MultiTrackScheduler.select(start, end, tracks, engine);
+                String where = "round " + round + ", k=" + tracks + ", " + engine;
+                assertValidAssignment(start, end, tracks, assignment, where);
+                assertEquals(optimum, assignment.selected().length, where);
+            }
+        }
+    }
+
+    @Test
+    void oneTrackIsThePlainGreedy() {
+        SplittableRandom random = new SplittableRandom(3);
+        long[] start = new long[3_000];
+        long[] end = new long[3_000];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = random.nextLong(1_000_000);
+            end[i] = start[i] + random.nextLong(0, 5_000);
+        }
+
+        assertArrayEquals(IntervalScheduler.selectNonOverlapping(start, end),
+                MultiTrackScheduler.select(start, end, 1).selected());
+    }
+
+    @Test
+    void zeroLengthIntervalsShareATrackWithTheirNeighbours() {
+        long[] start = {0, 5, 5, 5};
+        long[] end = {5, 5, 5, 9};
+
+        Assignment assignment = MultiTrackScheduler.select(start, end, 1);
+
+        assertEquals(4, assignment.selected().length);
+        assertArrayEquals(new int[]{0, 0, 0, 0}, assignment.track());
+    }
+
+    @Test
+    void moreTracksThanIntervalsTakesEverything() {
+        long[] start = {0, 0, 0};
+        long[] end = {10, 10, 10};
+
+        Assignment assignment = MultiTrackScheduler.select(start, end, 5);
+
+        assertEquals(3, assignment.selected().length);
+        assertValidAssignment(start, end, 5, assignment, "k=5");
+    }
+
+    @Test
+    void rejectsNoTracks() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MultiTrackScheduler.select(new long[1], new long[1], 0));
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private static void assertValidAssignment(long[] start, long[] end, int tracks, Assignment assignment,
+                                              String where) {
+        int[] selected = assignment.selected();
+        int[] track = assignment.track();
+        assertEquals(selected.length, track.length, where);
+        for (int t = 0; t < tracks; t++) {
+            int count = 0;
+            for (int k = 0; k < selected.length; k++) {
+                if (track[k] == t) {
+                    count++;
+                }
+            }
+            int[] onTrack = new int[count];
+            for (int k = 0, m = 0; k < selected.length; k++) {
+                assertTrue(track[k] >= 0 && track[k] < tracks, where + ": track out of range");
+                if (track[k] == t) {
+                    onTrack[m++] = selected[k];
+                }
+            }
+            assertValidSelection(start, end, onTrack, where + ", track " + t);
+        }
+        for (int k = 1; k < selected.length; k++) {
+            assertTrue(end[selected[k - 1]] <= end[selected[k]], where + ": not in order of end");
+        }
+    }
+
+    /* Mayor subconjunto que se puede repartir en {@code tracks} tracks sin solapes (coloreo por backtracking). */
+    private static int bruteForceMaxOnTracks(long[] start, long[] end, int tracks) {
+        int n = start.length;
+        int best = 0;
+        for (int mask = 0; mask < (1 << n); mask++) {
+            int size = Integer.bitCount(mask);
+            if (size <= best) {
+                continue;
+            }
+            int[] members = new int[size];
+            for (int i = 0, m = 0; i < n; i++) {
+                if ((mask >> i & 1) == 1) {
+                    members[m++] = i;
+                }
+            }
+            if (colourable(start, end, members, new int[size], 0, tracks)) {
+                best = size;
+            }
+        }
+        return best;
+    }
+
+    private static boolean colourable(long[] start, long[] end, int[] members, int[] colour, int next, int tracks) {
+        if (next == members.length) {
+            return true;
+        }
+        for (int c = 0; c < tracks; c++) {
+            boolean free = true;
+            for (int k = 0; k < next && free; k++) {
+                free = colour[k] != c || !overlap(start, end, members[k], members[next]);
+            }
+            if (free) {
+                colour[next] = c;
+                if (colourable(start, end, members, colour, next + 1, tracks)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
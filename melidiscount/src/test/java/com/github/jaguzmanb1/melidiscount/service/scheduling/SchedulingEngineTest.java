@@ -0,0 +1,94 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchedulingEngineTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 16, 100, 1_024, 2_047, 2_048, 5_000, 70_000};
+    private static final int INLINE_MAX_SIZE = 5_000;   // O(n²): más allá la prueba sólo pierde tiempo
+
+    @Test
+    void everyEngineSortsLikeTheReferenceOrder() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int n : SIZES) {
+            for (int ties : new int[]{4, 1_000, Integer.MAX_VALUE}) {
+                long[] start = new long[n];
+                long[] end = new long[n];
+                for (int i = 0; i < n; i++) {
+                    /* Pocos valores distintos → muchos ends compartidos; 1 de cada 5 con longitud cero. */
+                    end[i] = 1_700_000_000_000_000L + random.nextLong(ties);
+                    start[i] = random.nextInt(5) == 0 ? end[i] : end[i] - random.nextLong(1, 1_000_000);
+                }
+                assertAllEnginesAgree(start, end, "n=" + n + ", ties=" + ties + ", shuffled");
+
+                sortPairsByEnd(start, end);
+                assertAllEnginesAgree(start, end, "n=" + n + ", ties=" + ties + ", presorted");
+            }
+        }
+    }
+
+    @Test
+    void unpackableRangesFallBackToTheSameOrder() {
+        long[] end = {Long.MAX_VALUE, Long.MIN_VALUE, 0, Long.MAX_VALUE, -5, Long.MIN_VALUE};
+        long[] start = {0, Long.MIN_VALUE, -10, Long.MAX_VALUE, -5, Long.MIN_VALUE};
+
+        assertAllEnginesAgree(start, end, "full long range");
+    }
+
+    @Test
+    void staticEntryPointsMatchEveryEngine() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int n : new int[]{50, 3_000}) {
+            long[] start = new long[n];
+            long[] end = new long[n];
+            for (int i = 0; i < n; i++) {
+                start[i] = random.nextLong(1_000_000);
+                end[i] = start[i] + random.nextLong(0, 20_000);
+            }
+            int[] expected = IntervalScheduler.selectNonOverlapping(start, end);
+            for (SchedulingEngine engine : SchedulingEngine.values()) {
+                assertArrayEquals(expected, engine.selectNonOverlapping(start, end), "n=" + n + ", " + engine);
+            }
+        }
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private static void assertAllEnginesAgree(long[] start, long[] end, String where) {
+        int[] expected = referenceOrder(start, end);
+        for (SchedulingEngine engine : SchedulingEngine.values()) {
+            if (engine == SchedulingEngine.INLINE && end.length > INLINE_MAX_SIZE) {
+                continue;
+            }
+            assertArrayEquals(expected, IntervalScheduler.sortByEnd(start, end, engine), where + ", " + engine);
+        }
+    }
+
+    /* El orden documentado: end ascendente, longitud cero al final entre ends iguales, luego índice. */
+    private static int[] referenceOrder(long[] start, long[] end) {
+        return IntStream.range(0, end.length)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingLong(i -> end[i])
+                        .thenComparingInt(i -> start[i] < end[i] ? 0 : 1)
+                        .thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static void sortPairsByEnd(long[] start, long[] end) {
+        int[] order = referenceOrder(start, end);
+        long[] s = Arrays.copyOf(start, start.length);
+        long[] e = Arrays.copyOf(end, end.length);
+        for (int k = 0; k < order.length; k++) {
+            start[k] = s[order[k]];
+            end[k] = e[order[k]];
+        }
+    }
+}
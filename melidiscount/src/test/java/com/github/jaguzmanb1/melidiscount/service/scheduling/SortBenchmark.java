@@ -0,0 +1,87 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Micro‑benchmark for the end‑time sorts behind each {@link SchedulingEngine}, over end times shaped like
+ * the items service data (created 30‑365 days ago, updated 1‑29 days later, microsecond resolution), both
+ * shuffled and already in end order.
+ *
+ * <p>Not part of the test suite (that engines agree on the order is checked by {@link SchedulingEngineTest});
+ * run it by hand after changing a sort to re‑check the {@code discount.engine.*} defaults of
+ * {@code SchedulingEngineSelector}:</p>
+ *
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/test-classes:target/classes com.github.jaguzmanb1.melidiscount.service.scheduling.SortBenchmark
+ * </pre>
+ */
+public final class SortBenchmark {
+
+    private static final long DAY_MICROS = 86_400_000_000L;
+    private static final int[] SIZES = {16, 32, 64, 128, 256, 1_024, 2_048, 4_096, 16_384, 65_536,
+                                        262_144, 524_288};
+    private static final int INLINE_MAX_SIZE = 1_024;   // más allá, O(n²) no aporta nada a la tabla
+
+    private SortBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(42);
+        System.out.println("shuffled, µs per sort:");
+        run(random, false);
+        System.out.println("presorted, µs per sort:");
+        run(random, true);
+    }
+
+    private static void run(SplittableRandom random, boolean presorted) {
+        System.out.printf("%10s", "n");
+        for (SchedulingEngine engine : SchedulingEngine.values()) {
+            System.out.printf(" %10s", engine);
+        }
+        System.out.println();
+
+        for (int n : SIZES) {
+            long[] end = endTimes(random, n);
+            if (presorted) {
+                Arrays.sort(end);
+            }
+            long[] start = new long[n];    // todo intervalo tiene longitud > 0: el orden depende sólo de end
+            /* Más repeticiones para los tamaños chicos, así cada medición dura lo mismo aproximadamente. */
+            int reps = Math.max(5, 4_000_000 / n);
+
+            System.out.printf("%10d", n);
+            for (SchedulingEngine engine : SchedulingEngine.values()) {
+                if (engine == SchedulingEngine.INLINE && n > INLINE_MAX_SIZE) {
+                    System.out.printf(" %10s", "-");
+                    continue;
+                }
+                System.out.printf(" %10.1f", time(reps, () -> IntervalScheduler.sortByEnd(start, end, engine)));
+            }
+            System.out.println();
+        }
+    }
+
+    private static long[] endTimes(SplittableRandom random, int n) {
+        long now = System.currentTimeMillis() * 1_000L;
+        long[] end = new long[n];
+        for (int i = 0; i < n; i++) {
+            long created = now - random.nextLong(30, 366) * DAY_MICROS + random.nextLong(DAY_MICROS);
+            end[i] = created + random.nextLong(1, 30) * DAY_MICROS + random.nextLong(DAY_MICROS);
+        }
+        return end;
+    }
+
+    /* Media en µs por ejecución, tras una ronda de calentamiento del mismo tamaño. */
+    private static double time(int reps, Runnable sort) {
+        for (int i = 0; i < reps; i++) {
+            sort.run();
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < reps; i++) {
+            sort.run();
+        }
+        return (System.nanoTime() - t0) / 1_000.0 / reps;
+    }
+}
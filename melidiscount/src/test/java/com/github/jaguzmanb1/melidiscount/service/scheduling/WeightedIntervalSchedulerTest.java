@@ -0,0 +1,153 @@
+package com.github.jaguzmanb1.melidiscount.service.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedIntervalSchedulerTest {
+
+    @Test
+    void matchesBruteForceOnSmallRandomInputs() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int round = 0; round < 3_000; round++) {
+            int n = random.nextInt(13);
+            long[] start = new long[n];
+            long[] end = new long[n];
+            double[] weight = new double[n];
+            for (int i = 0; i < n; i++) {
+                /* Rango chico: muchos ends compartidos y de longitud cero. */
+                start[i] = random.nextInt(20);
+                end[i] = start[i] + (random.nextInt(4) == 0 ? 0 : random.nextInt(1, 8));
+                weight[i] = random.nextInt(4) == 0 ? random.nextInt(-2, 1) : random.nextInt(1, 50) / 4.0;
+            }
+
+            double optimum = bruteForceMaxWeight(start, end, weight);
+            for (SchedulingEngine engine : SchedulingEngine.values()) {
+                int[] selected = WeightedIntervalScheduler.selectMaxWeight(start, end, weight, engine);
+                String where = "round " + round + ", " + engine;
+                assertValidSelection(start, end, selected, where);
+                assertEquals(optimum, totalWeight(weight, selected), 1e-9, where);
+            }
+        }
+    }
+
+    @Test
+    void zeroLengthIntervalsAtTheSameInstantAreAllTaken() {
+        long[] start = {5, 5, 5, 0};
+        long[] end = {5, 5, 5, 5};
+        double[] weight = {1, 1, 1, 2};
+
+        int[] selected = WeightedIntervalScheduler.selectMaxWeight(start, end, weight);
+
+        assertEquals(5.0, totalWeight(weight, selected), 0.0);
+        assertEquals(4, selected.length);
+        assertEquals(3, selected[0]);   // la de longitud > 0 termina "antes" que las de longitud cero en 5
+    }
+
+    @Test
+    void zeroLengthIntervalInsideALongerOneConflictsWithIt() {
+        long[] start = {0, 5};
+        long[] end = {10, 5};
+
+        assertArrayEquals(new int[]{0}, WeightedIntervalScheduler.selectMaxWeight(start, end, new double[]{3, 2}));
+        assertArrayEquals(new int[]{1}, WeightedIntervalScheduler.selectMaxWeight(start, end, new double[]{2, 3}));
+    }
+
+    @Test
+    void intervalsSharingAnEndCompeteAndTheHeavierWins() {
+        long[] start = {0, 4, 8, 10};
+        long[] end = {10, 10, 10, 12};
+        double[] weight = {1, 3, 2, 1};
+
+        assertArrayEquals(new int[]{1, 3}, WeightedIntervalScheduler.selectMaxWeight(start, end, weight));
+    }
+
+    @Test
+    void nonPositiveWeightsAreNeverTaken() {
+        long[] start = {0, 10, 20};
+        long[] end = {5, 15, 25};
+
+        assertArrayEquals(new int[]{2},
+                WeightedIntervalScheduler.selectMaxWeight(start, end, new double[]{0, -1, 4}));
+        assertArrayEquals(new int[0],
+                WeightedIntervalScheduler.selectMaxWeight(start, end, new double[]{0, 0, -3}));
+    }
+
+    @Test
+    void unitWeightsSelectAsManyAsTheGreedy() {
+        SplittableRandom random = new SplittableRandom(5);
+        long[] start = new long[2_000];
+        long[] end = new long[2_000];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = random.nextLong(1_000_000);
+            end[i] = start[i] + random.nextLong(0, 5_000);
+        }
+        double[] ones = new double[start.length];
+        Arrays.fill(ones, 1.0);
+
+        assertEquals(IntervalScheduler.selectNonOverlapping(start, end).length,
+                WeightedIntervalScheduler.selectMaxWeight(start, end, ones).length);
+    }
+
+    @Test
+    void rejectsMismatchedLengths() {
+        assertThrows(IllegalArgumentException.class,
+                () -> WeightedIntervalScheduler.selectMaxWeight(new long[2], new long[2], new double[1]));
+        assertArrayEquals(new int[0],
+                WeightedIntervalScheduler.selectMaxWeight(new long[0], new long[0], new double[0]));
+    }
+
+    /* ───────────────────────────────────────────────────────────────────────────── */
+
+    private static double bruteForceMaxWeight(long[] start, long[] end, double[] weight) {
+        int n = start.length;
+        double best = 0;
+        for (int mask = 0; mask < (1 << n); mask++) {
+            double sum = 0;
+            boolean compatible = true;
+            for (int i = 0; i < n && compatible; i++) {
+                if ((mask >> i & 1) == 0) {
+                    continue;
+                }
+                sum += weight[i];
+                for (int j = i + 1; j < n; j++) {
+                    if ((mask >> j & 1) == 1 && overlap(start, end, i, j)) {
+                        compatible = false;
+                        break;
+                    }
+                }
+            }
+            if (compatible) {
+                best = Math.max(best, sum);
+            }
+        }
+        return best;
+    }
+
+    static boolean overlap(long[] start, long[] end, int i, int j) {
+        return !(end[i] <= start[j] || end[j] <= start[i]);
+    }
+
+    static void assertValidSelection(long[] start, long[] end, int[] selected, String where) {
+        for (int k = 0; k < selected.length; k++) {
+            if (k > 0) {
+                assertTrue(end[selected[k - 1]] <= end[selected[k]], where + ": not in order of end");
+            }
+            for (int m = k + 1; m < selected.length; m++) {
+                assertNotEquals(selected[k], selected[m]);
+                assertFalse(overlap(start, end, selected[k], selected[m]), where + ": overlapping selection");
+            }
+        }
+    }
+
+    private static double totalWeight(double[] weight, int[] selected) {
+        double sum = 0;
+        for (int idx : selected) {
+            sum += weight[idx];
+        }
+        return sum;
+    }
+}